@@ -4,6 +4,13 @@
 -- =========================================================
 CREATE EXTENSION IF NOT EXISTS pgcrypto;
 CREATE EXTENSION IF NOT EXISTS postgis;
+CREATE EXTENSION IF NOT EXISTS unaccent;
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Configuración de búsqueda en español que ignora tildes (búsqueda de publicaciones)
+CREATE TEXT SEARCH CONFIGURATION es_unaccent (COPY = spanish);
+ALTER TEXT SEARCH CONFIGURATION es_unaccent
+    ALTER MAPPING FOR hword, hword_part, word WITH unaccent, spanish_stem;
 
 -- ======================
 -- Tabla: roles
@@ -96,6 +103,29 @@ CREATE TABLE email_verification_tokens (
 CREATE INDEX idx_email_verif_user   ON email_verification_tokens(user_id);
 CREATE INDEX idx_email_verif_expiry ON email_verification_tokens(expires_at);
 
+-- ======================
+-- Tabla: refresh_tokens
+-- Tokens de renovación rotativos; solo se guarda el hash SHA-256 del token
+-- ======================
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    token_hash VARCHAR(64) NOT NULL UNIQUE,
+    family_id VARCHAR(36) NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    revoked_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT fk_refresh_tokens_user
+        FOREIGN KEY (user_id)
+            REFERENCES users (id)
+            ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_user ON refresh_tokens (user_id);
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_family ON refresh_tokens (family_id);
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_expires_at ON refresh_tokens (expires_at);
+
 -- ======================
 -- Trigger para updated_at
 -- ======================
@@ -124,6 +154,10 @@ CREATE TABLE IF NOT EXISTS categories (
                                           name VARCHAR(255) NOT NULL
     );
 
+-- Índice de trigramas para las sugerencias tolerantes a errores de tipeo
+CREATE INDEX IF NOT EXISTS idx_categories_name_trgm
+    ON categories USING GIN (lower(name) gin_trgm_ops);
+
 
 -- ======================
 -- Tabla:
@@ -146,6 +180,7 @@ CREATE TABLE IF NOT EXISTS publications (
     deleted_at TIMESTAMP,
     suspended BOOLEAN DEFAULT FALSE,
     working_hours VARCHAR(255),
+    search_vector tsvector, -- mantenido por trg_publications_search_vector
 
     CONSTRAINT fk_publications_category
     FOREIGN KEY (category_id)
@@ -157,6 +192,44 @@ CREATE TABLE IF NOT EXISTS publications (
     ON DELETE CASCADE
     );
 
+-- Índice para la paginación por cursor del feed (publication_date DESC, id DESC)
+CREATE INDEX idx_publications_feed_keyset
+    ON publications (publication_date DESC, id DESC)
+    WHERE deleted_at IS NULL;
+
+-- Índice GiST para el filtro por radio (ST_DWithin) y el orden KNN (<->) del feed por cercanía
+CREATE INDEX idx_publications_location
+    ON publications USING GIST (location)
+    WHERE deleted_at IS NULL;
+
+-- Índice GiST en coordenadas planas para el rectángulo del mapa (/api/publications/clusters)
+CREATE INDEX idx_publications_location_geometry
+    ON publications USING GIST ((location::geometry))
+    WHERE deleted_at IS NULL;
+
+-- Búsqueda de texto: el nombre pesa más (A) que la descripción (B)
+CREATE OR REPLACE FUNCTION publications_search_vector_update()
+    RETURNS TRIGGER AS $$
+BEGIN
+    NEW.search_vector :=
+            setweight(to_tsvector('es_unaccent', COALESCE(NEW.name, '')), 'A') ||
+            setweight(to_tsvector('es_unaccent', COALESCE(NEW.description, '')), 'B');
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_publications_search_vector
+    BEFORE INSERT OR UPDATE OF name, description ON publications
+    FOR EACH ROW
+EXECUTE FUNCTION publications_search_vector_update();
+
+CREATE INDEX idx_publications_search_vector
+    ON publications USING GIN (search_vector);
+
+-- Índice de trigramas para las sugerencias tolerantes a errores de tipeo (/api/publications/suggest)
+CREATE INDEX idx_publications_name_trgm
+    ON publications USING GIN (lower(name) gin_trgm_ops);
+
 -- ======================
 -- Tabla: publication_images
 -- ======================
@@ -164,11 +237,70 @@ CREATE TABLE IF NOT EXISTS publication_images (
    id BIGSERIAL PRIMARY KEY,
    publication_id BIGINT NOT NULL,
    path VARCHAR(255) NOT NULL,
+   thumb_path VARCHAR(500),
+   card_path VARCHAR(500),
+   full_path VARCHAR(500),
+   variants_generated BOOLEAN NOT NULL DEFAULT FALSE, -- true aunque no se haya generado ninguna variante
     CONSTRAINT fk_publication_images_publication FOREIGN KEY (publication_id)
     REFERENCES publications(id)
     ON DELETE CASCADE
     );
 
+-- Índice para obtener la primera imagen de cada publicación en el feed
+CREATE INDEX IF NOT EXISTS idx_publication_images_publication
+    ON publication_images (publication_id, id);
+
+-- ======================
+-- Tabla: dangerous_words
+-- Diccionario externo de palabras peligrosas (DANGEROUS_WORDS_SOURCE=database)
+-- ======================
+CREATE TABLE IF NOT EXISTS dangerous_words (
+    id BIGSERIAL PRIMARY KEY,
+    word VARCHAR(100) NOT NULL UNIQUE,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- ======================
+-- Tabla: staged_uploads
+-- Imágenes subidas que aún no se confirman en una publicación (ver StagedUploadService)
+-- ======================
+CREATE TABLE IF NOT EXISTS staged_uploads (
+    id BIGSERIAL PRIMARY KEY,
+    reference VARCHAR(500) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_staged_uploads_reference ON staged_uploads (reference);
+CREATE INDEX IF NOT EXISTS idx_staged_uploads_created_at ON staged_uploads (created_at);
+
+-- ======================
+-- Tabla: stored_files
+-- Archivos almacenados por hash de contenido, con conteo de referencias (deduplicación)
+-- ======================
+CREATE TABLE IF NOT EXISTS stored_files (
+    id BIGSERIAL PRIMARY KEY,
+    content_hash VARCHAR(64) NOT NULL UNIQUE,
+    reference VARCHAR(500) NOT NULL UNIQUE,
+    ref_count INTEGER NOT NULL DEFAULT 1,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- ======================
+-- Tabla: file_deletion_outbox
+-- Archivos pendientes de eliminar del almacenamiento, procesados por FileDeletionWorker
+-- ======================
+CREATE TABLE IF NOT EXISTS file_deletion_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    reference VARCHAR(500) NOT NULL,
+    released BOOLEAN NOT NULL DEFAULT FALSE,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_error VARCHAR(500),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_file_deletion_outbox_next_attempt ON file_deletion_outbox (next_attempt_at);
+
 -- ======================
 -- Tabla: favorite_publications
 -- ======================
@@ -230,6 +362,8 @@ CREATE TABLE IF NOT EXISTS reports (
     CONSTRAINT fk_reports_reporter FOREIGN KEY (reporter_id) REFERENCES users(id)
 );
 
+CREATE INDEX idx_reports_reporter_incidence ON reports (reporter_id, incidence_id);
+
 -- ======================
 -- Tabla: appeals
 -- ======================
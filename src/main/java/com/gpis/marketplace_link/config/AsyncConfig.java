@@ -1,7 +1,9 @@
 package com.gpis.marketplace_link.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
@@ -20,5 +22,48 @@ public class AsyncConfig {
         ex.initialize();
         return ex;
     }
+
+    /**
+     * Ejecutor exclusivo para el login (verificación BCrypt y carga del usuario), para que una
+     * ráfaga de inicios de sesión no ocupe los hilos del servidor que atienden el resto de endpoints.
+     * Cuando la cola se llena, los nuevos intentos se rechazan con 503.
+     */
+    @Bean
+    public Executor loginExecutor(@Value("${LOGIN_CONCURRENCY:4}") int concurrency,
+                                  @Value("${LOGIN_QUEUE_CAPACITY:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor ex = new ThreadPoolTaskExecutor();
+        ex.setThreadNamePrefix("login-");
+        ex.setCorePoolSize(concurrency);
+        ex.setMaxPoolSize(concurrency);
+        ex.setQueueCapacity(queueCapacity);
+        ex.initialize();
+        return ex;
+    }
+
+    /**
+     * Ejecutor para generar variantes de imágenes. El trabajo es de CPU, por lo que se limita a pocos hilos.
+     */
+    @Bean
+    public Executor imageProcessingExecutor() {
+        ThreadPoolTaskExecutor ex = new ThreadPoolTaskExecutor();
+        ex.setThreadNamePrefix("image-variants-");
+        ex.setCorePoolSize(2);
+        ex.setMaxPoolSize(2);
+        ex.setQueueCapacity(500);
+        ex.initialize();
+        return ex;
+    }
+
+    /**
+     * Ejecutor para subir las imágenes de una publicación en paralelo. Usa hilos virtuales
+     * (la subida es E/S) con un límite de subidas simultáneas; al alcanzarlo, quien envía la tarea espera.
+     */
+    @Bean
+    public Executor imageUploadExecutor(@Value("${IMAGE_UPLOAD_CONCURRENCY:8}") int concurrency) {
+        SimpleAsyncTaskExecutor ex = new SimpleAsyncTaskExecutor("image-upload-");
+        ex.setVirtualThreads(true);
+        ex.setConcurrencyLimit(concurrency);
+        return ex;
+    }
 }
 
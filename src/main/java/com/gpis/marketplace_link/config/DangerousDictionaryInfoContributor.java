@@ -0,0 +1,32 @@
+package com.gpis.marketplace_link.config;
+
+import com.gpis.marketplace_link.services.publications.DangerousContentDetectedService;
+import com.gpis.marketplace_link.services.publications.valueObjects.DangerousDictionarySnapshot;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.info.Info;
+import org.springframework.boot.actuate.info.InfoContributor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Publica en {@code /actuator/info} la versión activa del diccionario de palabras peligrosas,
+ * para comprobar que todos los nodos usan la misma.
+ */
+@Component
+@RequiredArgsConstructor
+public class DangerousDictionaryInfoContributor implements InfoContributor {
+
+    private final DangerousContentDetectedService dangerousContentDetectedService;
+
+    @Override
+    public void contribute(Info.Builder builder) {
+        DangerousDictionarySnapshot active = dangerousContentDetectedService.getActiveDictionary();
+        builder.withDetail("dangerousWordsDictionary", Map.of(
+                "version", active.version(),
+                "source", active.source(),
+                "words", active.words(),
+                "builtAt", active.builtAt().toString()
+        ));
+    }
+}
@@ -0,0 +1,10 @@
+package com.gpis.marketplace_link.dto.appeal.projections;
+
+import java.time.LocalDateTime;
+
+public interface ModeratorWorkloadProjection {
+
+    Long getModeratorId();
+    Long getWorkload();
+    LocalDateTime getOldestIncidenceAt();
+}
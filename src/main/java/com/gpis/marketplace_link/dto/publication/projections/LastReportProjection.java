@@ -0,0 +1,9 @@
+package com.gpis.marketplace_link.dto.publication.projections;
+
+import java.time.LocalDateTime;
+
+public interface LastReportProjection {
+
+    Long getPublicationId();
+    LocalDateTime getLastReportAt();
+}
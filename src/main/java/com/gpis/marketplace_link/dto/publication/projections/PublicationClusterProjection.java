@@ -0,0 +1,15 @@
+package com.gpis.marketplace_link.dto.publication.projections;
+
+/**
+ * Celda de la grilla del mapa: índices de la celda (coordenada / tamaño de celda, redondeado hacia abajo),
+ * cantidad de publicaciones y su centroide. {@code publicationId} solo viene cuando la celda tiene una.
+ */
+public interface PublicationClusterProjection {
+
+    Long getCellX();
+    Long getCellY();
+    Long getCount();
+    Double getLatitude();
+    Double getLongitude();
+    Long getPublicationId();
+}
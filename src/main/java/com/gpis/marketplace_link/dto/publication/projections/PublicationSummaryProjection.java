@@ -0,0 +1,23 @@
+package com.gpis.marketplace_link.dto.publication.projections;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Fila del feed de publicaciones: solo las columnas de la tarjeta más la primera imagen
+ * (variante para tarjetas si ya existe, si no el original).
+ */
+public interface PublicationSummaryProjection {
+
+    Long getId();
+    String getType();
+    String getName();
+    BigDecimal getPrice();
+    String getAvailability();
+    LocalDateTime getPublicationDate();
+    Long getVendorId();
+    Long getImageId();
+    String getImageUrl();
+    /** Distancia en metros al punto de búsqueda; null si no se envió ubicación. */
+    Double getDistanceMeters();
+}
@@ -0,0 +1,7 @@
+package com.gpis.marketplace_link.dto.publication.projections;
+
+public interface SuggestionTermProjection {
+
+    String getTerm();
+    Long getFrequency();
+}
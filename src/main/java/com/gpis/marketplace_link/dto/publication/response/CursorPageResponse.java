@@ -0,0 +1,10 @@
+package com.gpis.marketplace_link.dto.publication.response;
+
+import java.util.List;
+
+public record CursorPageResponse<T>(
+        List<T> content,
+        int size,
+        String nextCursor,
+        boolean hasNext
+) {}
@@ -0,0 +1,12 @@
+package com.gpis.marketplace_link.dto.publication.response;
+
+/**
+ * Grupo de publicaciones del mapa ubicado en el centroide de sus puntos.
+ * Si el grupo tiene una sola publicación, {@code publicationId} la identifica para dibujarla como pin.
+ */
+public record PublicationClusterResponse(
+        Double latitude,
+        Double longitude,
+        Long count,
+        Long publicationId) {
+}
@@ -15,5 +15,6 @@ public record PublicationSummaryResponse(
                 PublicationAvailable availability,
                 @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd/MM/yyyy HH:mm") LocalDateTime publicationDate,
                 PublicationImageReponse image,
-                Boolean canReport) {
+                Boolean canReport,
+                Double distanceKm) {
 }
\ No newline at end of file
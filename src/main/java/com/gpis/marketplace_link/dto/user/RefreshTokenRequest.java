@@ -0,0 +1,9 @@
+package com.gpis.marketplace_link.dto.user;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record RefreshTokenRequest(
+        @NotBlank(message = "El token de renovación es obligatorio")
+        String refreshToken
+) {
+}
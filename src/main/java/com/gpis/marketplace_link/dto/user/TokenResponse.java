@@ -0,0 +1,13 @@
+package com.gpis.marketplace_link.dto.user;
+
+/**
+ * @param token        token de acceso (JWT) de corta duración
+ * @param refreshToken token de renovación de un solo uso
+ * @param expiresIn    segundos de vigencia del token de acceso
+ */
+public record TokenResponse(
+        String token,
+        String refreshToken,
+        long expiresIn
+) {
+}
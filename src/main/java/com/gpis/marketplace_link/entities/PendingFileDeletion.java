@@ -0,0 +1,53 @@
+package com.gpis.marketplace_link.entities;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Archivo pendiente de eliminar del almacenamiento. Se registra en la misma transacción que
+ * deja de usarlo y lo procesa {@code FileDeletionWorker} en segundo plano.
+ */
+@Entity
+@Table(name = "file_deletion_outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+public class PendingFileDeletion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 500)
+    private String reference;
+
+    /** Indica que ya se restó la referencia y solo falta eliminar el archivo físico. */
+    @Column(nullable = false)
+    private boolean released;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public PendingFileDeletion(String reference) {
+        this.reference = reference;
+    }
+
+    @PrePersist
+    public void prePersist() {
+        this.createdAt = LocalDateTime.now();
+        this.nextAttemptAt = this.createdAt;
+    }
+}
@@ -4,6 +4,10 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
 
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
 @Entity
 @Table(name = "publication_images")
 @Data
@@ -15,8 +19,34 @@ public class PublicationImage {
     @Column(nullable = false)
     private String path;
 
+    /** Variantes redimensionadas; se generan en segundo plano y son null mientras no existan. */
+    @Column(name = "thumb_path", length = 500)
+    private String thumbPath;
+
+    @Column(name = "card_path", length = 500)
+    private String cardPath;
+
+    @Column(name = "full_path", length = 500)
+    private String fullPath;
+
+    /**
+     * Indica que las variantes ya se procesaron, aunque no se haya generado ninguna (imagen pequeña
+     * o formato no soportado); con esto la imagen no se vuelve a procesar en cada edición.
+     */
+    @Column(name = "variants_generated", nullable = false)
+    private boolean variantsGenerated;
+
     @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "publication_id", nullable = false)
     @JsonIgnore
     private Publication publication;
+
+    /**
+     * @return el archivo original y todas sus variantes existentes
+     */
+    public List<String> storedPaths() {
+        return Stream.of(path, thumbPath, cardPath, fullPath)
+                .filter(Objects::nonNull)
+                .toList();
+    }
 }
@@ -0,0 +1,41 @@
+package com.gpis.marketplace_link.entities;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Archivo ya subido al almacenamiento pero que todavía no pertenece a ninguna publicación.
+ * La fila se elimina en la misma transacción que guarda la publicación; las que quedan
+ * huérfanas las limpia {@code StagedUploadSweeper}.
+ */
+@Entity
+@Table(name = "staged_uploads")
+@Getter
+@Setter
+@NoArgsConstructor
+public class StagedUpload {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // No es única: con la deduplicación, dos subidas con el mismo contenido comparten referencia
+    @Column(nullable = false, length = 500)
+    private String reference;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public StagedUpload(String reference) {
+        this.reference = reference;
+    }
+
+    @PrePersist
+    public void prePersist() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
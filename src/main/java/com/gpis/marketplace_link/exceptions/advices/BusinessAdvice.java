@@ -206,6 +206,27 @@ public class BusinessAdvice {
         return pd;
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ProblemDetail handleInvalidCursor(InvalidCursorException ex) {
+        ProblemDetail pd = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, ex.getMessage());
+        pd.setTitle("Cursor inválido");
+        return pd;
+    }
+
+    @ExceptionHandler(InvalidFeedSortException.class)
+    public ProblemDetail handleInvalidFeedSort(InvalidFeedSortException ex) {
+        ProblemDetail pd = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, ex.getMessage());
+        pd.setTitle("Orden inválido");
+        return pd;
+    }
+
+    @ExceptionHandler(InvalidBoundingBoxException.class)
+    public ProblemDetail handleInvalidBoundingBox(InvalidBoundingBoxException ex) {
+        ProblemDetail pd = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, ex.getMessage());
+        pd.setTitle("Área del mapa inválida");
+        return pd;
+    }
+
     @ExceptionHandler(PublicationCanNotDeleteException.class)
     public ProblemDetail handlePublicationCanNotDelete(PublicationCanNotDeleteException ex) {
         ProblemDetail pd = ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, ex.getMessage());
@@ -277,4 +298,13 @@ public class BusinessAdvice {
         return pd;
     }
 
+    @ExceptionHandler(InvalidRefreshTokenException.class)
+    public ProblemDetail handleInvalidRefreshToken(InvalidRefreshTokenException ex, HttpServletRequest req) {
+        ProblemDetail pd = ProblemDetail.forStatusAndDetail(HttpStatus.UNAUTHORIZED, ex.getMessage());
+        pd.setTitle("Sesión inválida");
+        pd.setType(java.net.URI.create("https://example.com/errors/invalid-refresh-token"));
+        pd.setInstance(java.net.URI.create(req.getRequestURI()));
+        return pd;
+    }
+
 }
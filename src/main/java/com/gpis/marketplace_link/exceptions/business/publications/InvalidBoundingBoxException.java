@@ -0,0 +1,7 @@
+package com.gpis.marketplace_link.exceptions.business.publications;
+
+public class InvalidBoundingBoxException extends RuntimeException {
+    public InvalidBoundingBoxException(String message) {
+        super(message);
+    }
+}
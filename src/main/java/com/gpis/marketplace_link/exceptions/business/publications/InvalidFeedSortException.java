@@ -0,0 +1,7 @@
+package com.gpis.marketplace_link.exceptions.business.publications;
+
+public class InvalidFeedSortException extends RuntimeException {
+    public InvalidFeedSortException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,5 @@
+package com.gpis.marketplace_link.exceptions.business.users;
+
+public class InvalidRefreshTokenException extends RuntimeException {
+    public InvalidRefreshTokenException() { super("La sesión expiró o fue revocada. Inicia sesión nuevamente."); }
+}
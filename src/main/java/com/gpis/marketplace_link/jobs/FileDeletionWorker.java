@@ -0,0 +1,23 @@
+package com.gpis.marketplace_link.jobs;
+
+import com.gpis.marketplace_link.services.publications.FileDeletionQueueService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class FileDeletionWorker {
+
+    private final FileDeletionQueueService fileDeletionQueueService;
+
+    @Scheduled(fixedDelayString = "${FILE_DELETION_POLL_MS:5000}")
+    public void drainFileDeletions() {
+        int deleted = fileDeletionQueueService.drain();
+        if (deleted > 0) {
+            log.info("Se procesaron {} eliminaciones de archivos pendientes", deleted);
+        }
+    }
+}
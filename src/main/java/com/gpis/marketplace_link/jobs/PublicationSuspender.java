@@ -2,10 +2,12 @@ package com.gpis.marketplace_link.jobs;
 
 import com.gpis.marketplace_link.services.publications.PublicationService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+@Slf4j
 @RequiredArgsConstructor
 @Component
 public class PublicationSuspender {
@@ -18,7 +20,8 @@ public class PublicationSuspender {
     @Scheduled(cron="0 0 0 * * *")
     public void suspendedPublications(){
 
-        this.service.suspendedPublicationsOlderThan(suspendedTimeDays);
+        int suspended = this.service.suspendedPublicationsOlderThan(suspendedTimeDays);
+        log.info("Job de suspensión finalizado. Publicaciones suspendidas: {}", suspended);
     }
 
 }
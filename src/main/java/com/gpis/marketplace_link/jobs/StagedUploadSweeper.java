@@ -0,0 +1,28 @@
+package com.gpis.marketplace_link.jobs;
+
+import com.gpis.marketplace_link.services.publications.StagedUploadService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class StagedUploadSweeper {
+
+    private final StagedUploadService stagedUploadService;
+
+    @Value("${STAGED_UPLOAD_TTL_MINUTES:60}")
+    private Long stagedUploadTtlMinutes;
+
+    // segundos, minutos, horas, dias, mes, dia_semana
+    @Scheduled(cron = "0 */15 * * * *")
+    public void sweepStagedUploads() {
+        int swept = stagedUploadService.sweepExpired(stagedUploadTtlMinutes);
+        if (swept > 0) {
+            log.info("Se eliminaron {} imágenes subidas que nunca se asociaron a una publicación", swept);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.gpis.marketplace_link.jobs;
+
+import com.gpis.marketplace_link.security.service.AuthTokenService;
+import com.gpis.marketplace_link.security.service.TokenRevocationIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class TokenRevocationRefresher {
+
+    private final TokenRevocationIndex tokenRevocationIndex;
+    private final AuthTokenService authTokenService;
+
+    // Recoge los cambios de estado hechos por otras instancias o directamente en la base de datos
+    @Scheduled(fixedDelayString = "${TOKEN_REVOCATION_REFRESH_MS:15000}",
+            initialDelayString = "${TOKEN_REVOCATION_REFRESH_MS:15000}")
+    public void rebuildRevocationIndex() {
+        tokenRevocationIndex.rebuild();
+    }
+
+    // segundos, minutos, horas, dias, mes, dia_semana
+    @Scheduled(cron = "0 30 3 * * *")
+    public void purgeExpiredRefreshTokens() {
+        int purged = authTokenService.purgeExpired();
+        if (purged > 0) {
+            log.info("Se eliminaron {} tokens de renovación vencidos", purged);
+        }
+    }
+}
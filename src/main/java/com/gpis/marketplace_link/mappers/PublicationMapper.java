@@ -1,5 +1,6 @@
 package com.gpis.marketplace_link.mappers;
 
+import com.gpis.marketplace_link.dto.publication.projections.PublicationSummaryProjection;
 import com.gpis.marketplace_link.dto.publication.request.PublicationCreateRequest;
 import com.gpis.marketplace_link.dto.publication.request.PublicationUpdateRequest;
 import com.gpis.marketplace_link.dto.publication.response.PublicationImageReponse;
@@ -7,6 +8,8 @@ import com.gpis.marketplace_link.dto.publication.response.PublicationResponse;
 import com.gpis.marketplace_link.dto.publication.response.PublicationSummaryResponse;
 import com.gpis.marketplace_link.entities.Publication;
 import com.gpis.marketplace_link.entities.PublicationImage;
+import com.gpis.marketplace_link.enums.PublicationAvailable;
+import com.gpis.marketplace_link.enums.PublicationType;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.geom.Point;
@@ -28,6 +31,7 @@ public interface PublicationMapper {
 
     @Mapping(target = "image", expression = "java(firstImage(publication))")
     @Mapping(target = "canReport", ignore = true)
+    @Mapping(target = "distanceKm", ignore = true)
     PublicationSummaryResponse toSummaryResponse(Publication publication);
 
     @Mapping(target = "vendor", ignore = true)
@@ -53,7 +57,28 @@ public interface PublicationMapper {
         List<PublicationImage> images = publication.getImages();
         if (images == null || images.isEmpty())
             return null;
-        return toPublicationImageResponse(images.get(0));
+        // En los listados se usa la variante para tarjetas; si aún no se generó, el original
+        PublicationImage image = images.get(0);
+        String url = image.getCardPath() != null ? image.getCardPath() : image.getPath();
+        return new PublicationImageReponse(image.getId(), url);
+    }
+
+    default PublicationSummaryResponse fromSummaryProjection(PublicationSummaryProjection row, Boolean canReport) {
+        if (row == null)
+            return null;
+        PublicationImageReponse image = row.getImageId() != null
+                ? new PublicationImageReponse(row.getImageId(), row.getImageUrl())
+                : null;
+        return new PublicationSummaryResponse(
+                row.getId(),
+                row.getType() != null ? PublicationType.valueOf(row.getType()) : null,
+                row.getName(),
+                row.getPrice(),
+                row.getAvailability() != null ? PublicationAvailable.valueOf(row.getAvailability()) : null,
+                row.getPublicationDate(),
+                image,
+                canReport,
+                row.getDistanceMeters() != null ? Math.round(row.getDistanceMeters()) / 1000d : null);
     }
 
     GeometryFactory GEOMETRY_FACTORY = new GeometryFactory(new PrecisionModel(), 4326);
@@ -0,0 +1,13 @@
+package com.gpis.marketplace_link.repositories;
+
+import com.gpis.marketplace_link.entities.DangerousWord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface DangerousWordRepository extends JpaRepository<DangerousWord, Long> {
+
+    @Query("SELECT w.word FROM DangerousWord w ORDER BY w.id")
+    List<String> findAllWords();
+}
@@ -43,6 +43,35 @@ public interface FavoritePublicationRepository extends JpaRepository<FavoritePub
     @Query(value = "UPDATE favorite_publications SET deleted = false WHERE publication_id = :publicationId", nativeQuery = true)
     int restoreAllByPublicationId(@Param("publicationId") Long publicationId);
 
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query(value = """
+    UPDATE favorite_publications f
+    SET deleted = true
+    FROM publications p
+    WHERE f.publication_id = p.id
+      AND p.vendor_id = :vendorId
+      AND p.deleted_at IS NULL
+      AND f.deleted = false
+    """, nativeQuery = true)
+    int softDeleteAllByVendorId(@Param("vendorId") Long vendorId);
+
+    /**
+     * Restaura los favoritos de las publicaciones bloqueadas del vendedor. Debe ejecutarse antes de
+     * restaurar las publicaciones, ya que se filtra por el estado BLOCKED.
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query(value = """
+    UPDATE favorite_publications f
+    SET deleted = false
+    FROM publications p
+    WHERE f.publication_id = p.id
+      AND p.vendor_id = :vendorId
+      AND p.deleted_at IS NULL
+      AND p.status = 'BLOCKED'
+      AND f.deleted = true
+    """, nativeQuery = true)
+    int restoreAllOfBlockedByVendorId(@Param("vendorId") Long vendorId);
+
     /**
      * Recupera un favorite_publications por user_id y publication_id sin aplicar el comportamiento de soft-delete
      * (usa consulta nativa para asegurarse de leer incluso filas marcadas como deleted=true).
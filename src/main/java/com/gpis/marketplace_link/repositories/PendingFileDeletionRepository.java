@@ -0,0 +1,53 @@
+package com.gpis.marketplace_link.repositories;
+
+import com.gpis.marketplace_link.entities.PendingFileDeletion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface PendingFileDeletionRepository extends JpaRepository<PendingFileDeletion, Long> {
+
+    /**
+     * Reserva un lote de eliminaciones listas para procesarse, moviendo su próximo intento a
+     * {@code leaseUntil}. SKIP LOCKED permite que varias instancias procesen lotes distintos; si
+     * una instancia cae a mitad del lote, las filas vuelven a estar disponibles al vencer la reserva.
+     */
+    @Transactional
+    @Query(value = """
+    UPDATE file_deletion_outbox
+    SET next_attempt_at = :leaseUntil
+    WHERE id IN (
+        SELECT id
+        FROM file_deletion_outbox
+        WHERE next_attempt_at <= :now
+        ORDER BY id
+        LIMIT :batchSize
+        FOR UPDATE SKIP LOCKED
+    )
+    RETURNING *
+    """, nativeQuery = true)
+    List<PendingFileDeletion> claimBatch(@Param("now") LocalDateTime now,
+                                         @Param("leaseUntil") LocalDateTime leaseUntil,
+                                         @Param("batchSize") int batchSize);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE file_deletion_outbox SET released = true WHERE id = :id", nativeQuery = true)
+    int markReleased(@Param("id") Long id);
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+    UPDATE file_deletion_outbox
+    SET attempts = attempts + 1, next_attempt_at = :nextAttemptAt, last_error = :lastError
+    WHERE id = :id
+    """, nativeQuery = true)
+    int reschedule(@Param("id") Long id,
+                   @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                   @Param("lastError") String lastError);
+}
@@ -2,6 +2,27 @@ package com.gpis.marketplace_link.repositories;
 
 import com.gpis.marketplace_link.entities.PublicationImage;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface PublicationImageRepository extends JpaRepository<PublicationImage, Long> {
+
+    /**
+     * Guarda las variantes y marca la imagen como procesada, solo si nadie lo hizo antes.
+     *
+     * @return 0 si la imagen ya estaba procesada (o ya no existe)
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+    UPDATE publication_images
+    SET thumb_path = :thumbPath, card_path = :cardPath, full_path = :fullPath, variants_generated = true
+    WHERE id = :id AND variants_generated = false
+    """, nativeQuery = true)
+    int updateVariants(@Param("id") Long id,
+                       @Param("thumbPath") String thumbPath,
+                       @Param("cardPath") String cardPath,
+                       @Param("fullPath") String fullPath);
 }
@@ -1,16 +1,230 @@
 package com.gpis.marketplace_link.repositories;
 
+import com.gpis.marketplace_link.dto.publication.projections.IdRangeProjection;
+import com.gpis.marketplace_link.dto.publication.projections.PublicationClusterProjection;
+import com.gpis.marketplace_link.dto.publication.projections.PublicationSummaryProjection;
+import com.gpis.marketplace_link.dto.publication.projections.SuggestionTermProjection;
 import com.gpis.marketplace_link.entities.Publication;
+import org.locationtech.jts.geom.Point;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 public interface PublicationRepository  extends JpaRepository<Publication, Long>, JpaSpecificationExecutor<Publication> {
 
+    /**
+     * Filtros del feed público: publicaciones visibles, no eliminadas ni suspendidas, de vendedores activos;
+     * equivalen a las condiciones de {@code PublicationSpecifications} que usaba el feed.
+     * Los filtros opcionales se desactivan con null (o con un arreglo vacío de categorías).
+     * {@code point} se enlaza como un {@code Point} JTS (SRID 4326) y se convierte a geography en la consulta,
+     * sin armar ni parsear WKT en cada petición.
+     *
+     * {@code q} busca sobre {@code search_vector} (nombre y descripción, español sin tildes) con la
+     * sintaxis de {@code websearch_to_tsquery}: palabras, "frases" y -exclusiones; usa el índice GIN.
+     */
+    String FEED_FROM = """
+    FROM publications p
+    JOIN users u ON u.id = p.vendor_id
+    """;
+
+    String FEED_WHERE = """
+    WHERE p.status = 'VISIBLE'
+      AND p.deleted_at IS NULL
+      AND p.suspended = false
+      AND u.account_status = 'ACTIVE'
+      AND u.deleted = false
+      AND (cardinality(CAST(:categoryIds AS bigint[])) = 0 OR p.category_id = ANY(CAST(:categoryIds AS bigint[])))
+      AND (CAST(:q AS text) IS NULL
+           OR p.search_vector @@ websearch_to_tsquery('es_unaccent', CAST(:q AS text)))
+      AND (CAST(:minPrice AS numeric) IS NULL OR p.price >= CAST(:minPrice AS numeric))
+      AND (CAST(:maxPrice AS numeric) IS NULL OR p.price <= CAST(:maxPrice AS numeric))
+      AND (CAST(:distanceMeters AS double precision) IS NULL
+           OR ST_DWithin(p.location, CAST(:point AS geography), CAST(:distanceMeters AS double precision)))
+    """;
+
+    /**
+     * Columnas de la tarjeta y primera imagen (variante para tarjetas si ya existe) mediante un LATERAL.
+     * {@code distanceMeters} es null cuando no se envía {@code point}.
+     */
+    String FEED_SELECT = """
+    SELECT p.id AS id,
+           p.type AS type,
+           p.name AS name,
+           p.price AS price,
+           p.availability AS availability,
+           p.publication_date AS publicationDate,
+           p.vendor_id AS vendorId,
+           img.id AS imageId,
+           COALESCE(img.card_path, img.path) AS imageUrl,
+           ST_Distance(p.location, CAST(:point AS geography)) AS distanceMeters
+    """;
+
+    String FEED_FIRST_IMAGE = """
+    LEFT JOIN LATERAL (
+        SELECT pi.id, pi.path, pi.card_path
+        FROM publication_images pi
+        WHERE pi.publication_id = p.id
+        ORDER BY pi.id
+        LIMIT 1
+    ) img ON true
+    """;
+
+    /**
+     * Página del feed en una sola consulta: selecciona solo las columnas de la tarjeta (sin la
+     * descripción) y la primera imagen mediante un LATERAL, en lugar de cargar las entidades
+     * y luego la colección de imágenes de cada una.
+     *
+     * Orden (publication_date DESC, id DESC), precedido por la relevancia de la búsqueda cuando
+     * {@code rankByRelevance} es true. Con {@code cursorDate}/{@code cursorId} devuelve solo las filas
+     * posteriores al cursor (keyset, que requiere el orden por fecha); si son null, se pagina con {@code offset}.
+     */
+    @Query(value = FEED_SELECT + FEED_FROM + FEED_FIRST_IMAGE + FEED_WHERE + """
+      AND (CAST(:cursorDate AS timestamp) IS NULL
+           OR (p.publication_date, p.id) < (CAST(:cursorDate AS timestamp), CAST(:cursorId AS bigint)))
+    ORDER BY CASE WHEN :rankByRelevance
+                  THEN ts_rank_cd(p.search_vector, websearch_to_tsquery('es_unaccent', CAST(:q AS text)))
+                  ELSE 0 END DESC,
+             p.publication_date DESC, p.id DESC
+    LIMIT :limit OFFSET :offset
+    """, nativeQuery = true)
+    List<PublicationSummaryProjection> findFeedSummaries(@Param("q") String q,
+                                                         @Param("rankByRelevance") boolean rankByRelevance,
+                                                         @Param("categoryIds") Long[] categoryIds,
+                                                         @Param("minPrice") BigDecimal minPrice,
+                                                         @Param("maxPrice") BigDecimal maxPrice,
+                                                         @Param("point") Point point,
+                                                         @Param("distanceMeters") Double distanceMeters,
+                                                         @Param("cursorDate") LocalDateTime cursorDate,
+                                                         @Param("cursorId") Long cursorId,
+                                                         @Param("limit") int limit,
+                                                         @Param("offset") long offset);
+
+    @Query(value = "SELECT COUNT(*) " + FEED_FROM + FEED_WHERE, nativeQuery = true)
+    long countFeedSummaries(@Param("q") String q,
+                            @Param("categoryIds") Long[] categoryIds,
+                            @Param("minPrice") BigDecimal minPrice,
+                            @Param("maxPrice") BigDecimal maxPrice,
+                            @Param("point") Point point,
+                            @Param("distanceMeters") Double distanceMeters);
+
+    /**
+     * Página del feed ordenada de la más cercana a la más lejana a {@code point}. El orden usa el
+     * operador KNN {@code <->} sobre el índice GiST de {@code location}, así que las más cercanas
+     * salen directamente de un recorrido del índice en lugar de ordenar todas las coincidencias.
+     * Las publicaciones sin ubicación quedan al final.
+     */
+    @Query(value = FEED_SELECT + FEED_FROM + FEED_FIRST_IMAGE + FEED_WHERE + """
+    ORDER BY p.location <-> CAST(:point AS geography), p.id
+    LIMIT :limit OFFSET :offset
+    """, nativeQuery = true)
+    List<PublicationSummaryProjection> findFeedSummariesByDistance(@Param("q") String q,
+                                                                   @Param("categoryIds") Long[] categoryIds,
+                                                                   @Param("minPrice") BigDecimal minPrice,
+                                                                   @Param("maxPrice") BigDecimal maxPrice,
+                                                                   @Param("point") Point point,
+                                                                   @Param("distanceMeters") Double distanceMeters,
+                                                                   @Param("limit") int limit,
+                                                                   @Param("offset") long offset);
+
+    /**
+     * Agrupa en una grilla de {@code cellSize} grados las publicaciones del feed dentro del rectángulo
+     * (equivale a {@code ST_SnapToGrid} con el origen en la esquina de cada celda, para que cada punto
+     * caiga en una sola). El filtro del rectángulo usa el índice GiST sobre {@code location::geometry}.
+     */
+    @Query(value = """
+    SELECT CAST(floor(ST_X(v.geom) / :cellSize) AS bigint) AS cellX,
+           CAST(floor(ST_Y(v.geom) / :cellSize) AS bigint) AS cellY,
+           COUNT(*) AS count,
+           AVG(ST_Y(v.geom)) AS latitude,
+           AVG(ST_X(v.geom)) AS longitude,
+           CASE WHEN COUNT(*) = 1 THEN MIN(v.id) END AS publicationId
+    FROM (
+        SELECT p.id, CAST(p.location AS geometry) AS geom
+    """ + FEED_FROM + FEED_WHERE + """
+          AND p.location IS NOT NULL
+          AND CAST(p.location AS geometry) && ST_MakeEnvelope(:minLon, :minLat, :maxLon, :maxLat, 4326)
+    ) v
+    GROUP BY 1, 2
+    """, nativeQuery = true)
+    List<PublicationClusterProjection> findClusters(@Param("q") String q,
+                                                    @Param("categoryIds") Long[] categoryIds,
+                                                    @Param("minPrice") BigDecimal minPrice,
+                                                    @Param("maxPrice") BigDecimal maxPrice,
+                                                    @Param("point") Point point,
+                                                    @Param("distanceMeters") Double distanceMeters,
+                                                    @Param("minLon") double minLon,
+                                                    @Param("minLat") double minLat,
+                                                    @Param("maxLon") double maxLon,
+                                                    @Param("maxLat") double maxLat,
+                                                    @Param("cellSize") double cellSize);
+
+    /**
+     * Términos más frecuentes para el árbol de autocompletado: nombres de publicaciones visibles
+     * (agrupados sin distinguir mayúsculas) y nombres de categorías, con su cantidad de publicaciones.
+     */
+    @Query(value = """
+    SELECT term, frequency
+    FROM (
+        SELECT MIN(p.name) AS term, COUNT(*) AS frequency
+        FROM publications p
+        JOIN users u ON u.id = p.vendor_id
+        WHERE p.status = 'VISIBLE'
+          AND p.deleted_at IS NULL
+          AND p.suspended = false
+          AND u.account_status = 'ACTIVE'
+          AND u.deleted = false
+        GROUP BY lower(p.name)
+        UNION ALL
+        SELECT c.name AS term, COUNT(p.id) + 1 AS frequency
+        FROM categories c
+        LEFT JOIN (publications p
+                   JOIN users u ON u.id = p.vendor_id AND u.account_status = 'ACTIVE' AND u.deleted = false)
+               ON p.category_id = c.id
+              AND p.status = 'VISIBLE'
+              AND p.deleted_at IS NULL
+              AND p.suspended = false
+        GROUP BY c.id, c.name
+    ) terms
+    ORDER BY frequency DESC
+    LIMIT :limit
+    """, nativeQuery = true)
+    List<SuggestionTermProjection> findSuggestionTerms(@Param("limit") int limit);
+
+    /**
+     * Sugerencias tolerantes a errores de tipeo con {@code pg_trgm}: {@code <%} compara el texto
+     * contra la palabra más parecida de cada nombre y usa los índices GIN de trigramas.
+     */
+    @Query(value = """
+    SELECT term
+    FROM (
+        SELECT p.name AS term, word_similarity(lower(:q), lower(p.name)) AS score
+        FROM publications p
+        JOIN users u ON u.id = p.vendor_id
+        WHERE lower(:q) <% lower(p.name)
+          AND p.status = 'VISIBLE'
+          AND p.deleted_at IS NULL
+          AND p.suspended = false
+          AND u.account_status = 'ACTIVE'
+          AND u.deleted = false
+        UNION ALL
+        SELECT c.name AS term, word_similarity(lower(:q), lower(c.name)) AS score
+        FROM categories c
+        WHERE lower(:q) <% lower(c.name)
+    ) matches
+    GROUP BY term
+    ORDER BY MAX(score) DESC, term
+    LIMIT :limit
+    """, nativeQuery = true)
+    List<String> findFuzzySuggestions(@Param("q") String q, @Param("limit") int limit);
+
     List<Publication> findAllByVendorIdAndDeletedAtIsNull(Long vendorId);
 
     @Query("""
@@ -19,4 +233,61 @@ public interface PublicationRepository  extends JpaRepository<Publication, Long>
     where p.id = :id
     """)
     Optional<Publication> findByIdWithImages(@Param("id") Long id);
+
+    @Query("select p.vendor.id from Publication p where p.id = :id and p.deletedAt is null")
+    Optional<Long> findVendorIdById(@Param("id") Long id);
+
+    @Query(value = "SELECT COALESCE(MIN(id), 0) AS minId, COALESCE(MAX(id), 0) AS maxId FROM publications", nativeQuery = true)
+    IdRangeProjection findIdRange();
+
+    /**
+     * Suspende, dentro de un rango de IDs, las publicaciones publicadas antes de la fecha límite
+     * que aún no están suspendidas. Se ejecuta por rangos y cada rango en su propia transacción
+     * para no mantener bloqueos largos sobre la tabla.
+     *
+     * @return IDs de las publicaciones suspendidas
+     */
+    @Transactional
+    @Query(value = """
+    UPDATE publications
+    SET suspended = true
+    WHERE id BETWEEN :fromId AND :toId
+      AND publication_date < :cutoff
+      AND suspended = false
+    RETURNING id
+    """, nativeQuery = true)
+    List<Long> suspendPublishedBeforeInIdRange(@Param("cutoff") LocalDateTime cutoff,
+                                               @Param("fromId") Long fromId,
+                                               @Param("toId") Long toId);
+
+    /**
+     * Bloquea en una sola sentencia todas las publicaciones activas del vendedor, guardando su
+     * estado actual en {@code previous_status} para poder restaurarlo.
+     *
+     * @return cantidad de publicaciones bloqueadas
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query(value = """
+    UPDATE publications
+    SET previous_status = status, status = 'BLOCKED'
+    WHERE vendor_id = :vendorId
+      AND deleted_at IS NULL
+      AND status <> 'BLOCKED'
+    """, nativeQuery = true)
+    int blockAllByVendorId(@Param("vendorId") Long vendorId);
+
+    /**
+     * Devuelve a su estado anterior (o VISIBLE si no lo tiene) las publicaciones bloqueadas del vendedor.
+     *
+     * @return cantidad de publicaciones restauradas
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query(value = """
+    UPDATE publications
+    SET status = COALESCE(previous_status, 'VISIBLE'), previous_status = NULL
+    WHERE vendor_id = :vendorId
+      AND deleted_at IS NULL
+      AND status = 'BLOCKED'
+    """, nativeQuery = true)
+    int restoreAllBlockedByVendorId(@Param("vendorId") Long vendorId);
 }
@@ -0,0 +1,56 @@
+package com.gpis.marketplace_link.repositories;
+
+import com.gpis.marketplace_link.entities.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    /**
+     * Consume el token de forma atómica: lo marca como revocado solo si sigue vigente.
+     * Dos renovaciones simultáneas con el mismo token no pueden tener éxito ambas.
+     */
+    @Transactional
+    @Query(value = """
+    UPDATE refresh_tokens
+    SET revoked_at = :now
+    WHERE token_hash = :tokenHash AND revoked_at IS NULL AND expires_at > :now
+    RETURNING *
+    """, nativeQuery = true)
+    Optional<RefreshToken> consume(@Param("tokenHash") String tokenHash, @Param("now") LocalDateTime now);
+
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+    UPDATE refresh_tokens
+    SET revoked_at = :now
+    WHERE family_id = :familyId AND revoked_at IS NULL
+    """, nativeQuery = true)
+    int revokeFamily(@Param("familyId") String familyId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+    UPDATE refresh_tokens
+    SET revoked_at = :now
+    WHERE user_id = :userId AND revoked_at IS NULL
+    """, nativeQuery = true)
+    int revokeAllByUserId(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    /**
+     * Elimina los tokens vencidos. Los revocados se conservan hasta su vencimiento para
+     * poder detectar la reutilización de un token ya rotado.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM refresh_tokens WHERE expires_at < :cutoff", nativeQuery = true)
+    int deleteExpired(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,11 +1,14 @@
 package com.gpis.marketplace_link.repositories;
 
+import com.gpis.marketplace_link.dto.publication.projections.LastReportProjection;
 import com.gpis.marketplace_link.entities.Report;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface ReportRepository extends JpaRepository<Report, Long> {
@@ -32,4 +35,27 @@ public interface ReportRepository extends JpaRepository<Report, Long> {
             """, nativeQuery = true)
     Optional<Report> findLastReportByReporterIdAndPublicationId(@Param("reporterId") Long reporterId,
             @Param("publicationId") Long publicationId);
+
+    /**
+     * Obtiene, en una sola consulta, la fecha del último reporte realizado por un usuario
+     * sobre cada una de las publicaciones indicadas.
+     *
+     * Las publicaciones que el usuario nunca ha reportado no aparecen en el resultado.
+     *
+     * @param reporterId     ID del usuario que reporta.
+     * @param publicationIds IDs de las publicaciones a consultar.
+     * @return lista con el ID de la publicación y la fecha de su último reporte.
+     */
+    @Query(value = """
+                SELECT i.publication_id AS publicationId,
+                       MAX(r.created_at) AS lastReportAt
+                FROM reports r
+                INNER JOIN incidences i ON r.incidence_id = i.id
+                WHERE r.reporter_id = :reporterId AND
+                      i.publication_id IN (:publicationIds)
+                GROUP BY i.publication_id
+            """, nativeQuery = true)
+    List<LastReportProjection> findLastReportDatesByReporterIdAndPublicationIds(
+            @Param("reporterId") Long reporterId,
+            @Param("publicationIds") Collection<Long> publicationIds);
 }
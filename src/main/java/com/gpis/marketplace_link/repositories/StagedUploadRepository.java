@@ -0,0 +1,21 @@
+package com.gpis.marketplace_link.repositories;
+
+import com.gpis.marketplace_link.entities.StagedUpload;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface StagedUploadRepository extends JpaRepository<StagedUpload, Long> {
+
+    @Modifying
+    @Query(value = "DELETE FROM staged_uploads WHERE id IN (:ids)", nativeQuery = true)
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    List<StagedUpload> findByCreatedAtBeforeOrderByCreatedAtAsc(LocalDateTime createdAt, Limit limit);
+}
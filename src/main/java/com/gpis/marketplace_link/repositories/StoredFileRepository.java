@@ -0,0 +1,67 @@
+package com.gpis.marketplace_link.repositories;
+
+import com.gpis.marketplace_link.entities.StoredFile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+public interface StoredFileRepository extends JpaRepository<StoredFile, Long> {
+
+    /**
+     * Suma una referencia al archivo con ese contenido, si ya existe.
+     *
+     * @return la referencia del archivo existente
+     */
+    @Transactional
+    @Query(value = """
+    UPDATE stored_files
+    SET ref_count = ref_count + 1
+    WHERE content_hash = :contentHash
+    RETURNING reference
+    """, nativeQuery = true)
+    Optional<String> incrementByContentHash(@Param("contentHash") String contentHash);
+
+    /**
+     * Registra un archivo recién subido con una referencia. Si otra subida con el mismo contenido
+     * se registró primero, suma una referencia a esa y devuelve su referencia.
+     */
+    @Transactional
+    @Query(value = """
+    INSERT INTO stored_files (content_hash, reference, ref_count, created_at)
+    VALUES (:contentHash, :reference, 1, CURRENT_TIMESTAMP)
+    ON CONFLICT (content_hash) DO UPDATE SET ref_count = stored_files.ref_count + 1
+    RETURNING reference
+    """, nativeQuery = true)
+    String insertOrIncrement(@Param("contentHash") String contentHash, @Param("reference") String reference);
+
+    /**
+     * @return las referencias que quedan; vacío si el archivo no está registrado
+     */
+    @Transactional
+    @Query(value = """
+    UPDATE stored_files
+    SET ref_count = ref_count - 1
+    WHERE reference = :reference
+    RETURNING ref_count
+    """, nativeQuery = true)
+    Optional<Integer> decrementByReference(@Param("reference") String reference);
+
+    /**
+     * Bloquea la fila del archivo hasta el fin de la transacción. Mientras tanto, una subida con el
+     * mismo contenido espera en {@link #incrementByContentHash} en lugar de reutilizar un archivo
+     * que se está eliminando.
+     *
+     * @return las referencias actuales; vacío si el archivo no está registrado
+     */
+    @Query(value = "SELECT ref_count FROM stored_files WHERE reference = :reference FOR UPDATE", nativeQuery = true)
+    Optional<Integer> lockRefCountByReference(@Param("reference") String reference);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM stored_files WHERE reference = :reference AND ref_count <= 0", nativeQuery = true)
+    int deleteUnreferenced(@Param("reference") String reference);
+}
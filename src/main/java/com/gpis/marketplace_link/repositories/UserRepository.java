@@ -1,5 +1,6 @@
 package com.gpis.marketplace_link.repositories;
 
+import com.gpis.marketplace_link.dto.appeal.projections.ModeratorWorkloadProjection;
 import com.gpis.marketplace_link.entities.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -61,6 +62,31 @@ public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificat
       """, nativeQuery = true)
     Long findLeastBusyModeratorOrAdminExcludingId(@Param("excludeId") Long excludeId);
 
+    /**
+     * Obtiene en una sola consulta la carga de trabajo de todos los moderadores y administradores,
+     * con los mismos criterios que {@link #findLeastBusyModeratorOrAdminExcludingId(Long)}.
+     *
+     * Se usa en las asignaciones masivas para construir la cola de prioridad una única vez,
+     * en lugar de repetir la agregación por cada apelación.
+     *
+     * @return ID de cada moderador, su total de tareas (incidencias + apelaciones) y la fecha
+     *         de su incidencia más antigua (o la fecha actual si no tiene ninguna).
+     */
+    @Query(value =
+            """
+       select u.id as moderatorId,
+              count(distinct i.id) + count(distinct a.id) as workload,
+              cast(coalesce(min(i.created_at), now()) as timestamp) as oldestIncidenceAt
+       from users u
+       join users_roles ur ON u.id = ur.user_id
+       join roles r on r.id = ur.role_id
+       left join incidences i ON i.moderator_id = u.id
+       left join appeals a on a.new_moderator_id = u.id
+       where r.name = 'ROLE_MODERATOR' OR r.name = 'ROLE_ADMIN'
+       group by u.id
+      """, nativeQuery = true)
+    List<ModeratorWorkloadProjection> findModeratorAndAdminWorkloads();
+
     Optional<User> findByEmail(String email);
 
     @Query("""
@@ -190,6 +216,30 @@ public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificat
 
     @Query(value = "SELECT * FROM users WHERE id = :userId", nativeQuery = true)
     Optional<User> findByIdNative(@Param("userId") Long userId);
+
+    /**
+     * IDs de los usuarios que no pueden usar sus tokens: bloqueados, inactivos o eliminados.
+     * Incluye los eliminados lógicamente, por eso es nativa.
+     */
+    @Query(value = """
+        SELECT id
+        FROM users
+        WHERE deleted = true OR account_status IN ('BLOCKED', 'INACTIVE')
+        """, nativeQuery = true)
+    List<Long> findRevokedUserIds();
+
+    /**
+     * Nombres de los roles de un usuario activo en una sola consulta. Un usuario sin roles devuelve
+     * una fila con cadena vacía; si el usuario no existe (o está eliminado) no devuelve filas.
+     */
+    @Query(value = """
+        SELECT COALESCE(r.name, '')
+        FROM users u
+        LEFT JOIN users_roles ur ON ur.user_id = u.id
+        LEFT JOIN roles r        ON r.id = ur.role_id
+        WHERE u.id = :userId AND u.deleted = false
+        """, nativeQuery = true)
+    List<String> findRoleNamesByUserId(@Param("userId") Long userId);
   
 
 
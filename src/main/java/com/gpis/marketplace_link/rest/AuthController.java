@@ -1,11 +1,15 @@
 package com.gpis.marketplace_link.rest;
 
+import com.gpis.marketplace_link.dto.user.RefreshTokenRequest;
+import com.gpis.marketplace_link.dto.user.TokenResponse;
 import com.gpis.marketplace_link.dto.user.UserResponse;
 import com.gpis.marketplace_link.mappers.UserMapper;
 import com.gpis.marketplace_link.entities.User;
+import com.gpis.marketplace_link.security.service.AuthTokenService;
 import com.gpis.marketplace_link.security.service.SecurityService;
 import com.gpis.marketplace_link.services.user.EmailVerificationService;
 import com.gpis.marketplace_link.services.UserService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -24,6 +28,7 @@ public class AuthController {
     private final UserMapper userMapper;
     private final EmailVerificationService emailVerificationService;
     private final SecurityService securityService;
+    private final AuthTokenService authTokenService;
 
     @GetMapping("/profile")
     public ResponseEntity<UserResponse> getProfile(Authentication authentication) {
@@ -33,6 +38,17 @@ public class AuthController {
         return ResponseEntity.ok(userMapper.toResponse(user));
     }
 
+    @PostMapping("/refresh")
+    public ResponseEntity<TokenResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        return ResponseEntity.ok(authTokenService.refresh(request.refreshToken()));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@Valid @RequestBody RefreshTokenRequest request) {
+        authTokenService.logout(request.refreshToken());
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/verify-email")
     public ResponseEntity<String> verifyEmail(@RequestParam(value = "token", required = false) String token) {
         if (!StringUtils.hasText(token)) {
@@ -1,14 +1,18 @@
 package com.gpis.marketplace_link.rest;
 
 
-import com.gpis.marketplace_link.entities.Category;
 import com.gpis.marketplace_link.services.publications.CategoryService;
+import com.gpis.marketplace_link.services.publications.CategoryService.CachedCategories;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.List;
+import java.time.Duration;
 
 @RestController
 @RequestMapping("/api/categories")
@@ -20,9 +24,41 @@ public class CategoryController {
         this.categoryService = categoryService;
     }
 
+    /**
+     * Devuelve la lista de categorías desde la caché del servicio. Con {@code If-None-Match}
+     * igual al ETag actual se responde 304 sin cuerpo.
+     */
     @GetMapping
-    public ResponseEntity<List<Category>> getAll(){
-        return ResponseEntity.ok(categoryService.getAll());
+    public ResponseEntity<byte[]> getAll(@RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch){
+        CachedCategories categories = categoryService.getAllCached();
+        CacheControl cacheControl = CacheControl.maxAge(Duration.ofSeconds(categoryService.getCacheTtlSeconds()))
+                .cachePublic();
+
+        if (matchesEtag(ifNoneMatch, categories.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(categories.etag())
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+
+        return ResponseEntity.ok()
+                .eTag(categories.etag())
+                .cacheControl(cacheControl)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(categories.body());
+    }
+
+    private static boolean matchesEtag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || value.equals(etag) || value.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
     }
 
 }
@@ -2,9 +2,15 @@ package com.gpis.marketplace_link.rest;
 
 import com.gpis.marketplace_link.dto.publication.request.PublicationCreateRequest;
 import com.gpis.marketplace_link.dto.publication.request.PublicationUpdateRequest;
+import com.gpis.marketplace_link.dto.publication.response.CursorPageResponse;
+import com.gpis.marketplace_link.dto.publication.response.PublicationClusterResponse;
 import com.gpis.marketplace_link.dto.publication.response.PublicationResponse;
 import com.gpis.marketplace_link.dto.publication.response.PublicationSummaryResponse;
+import com.gpis.marketplace_link.services.publications.PublicationClusterService;
 import com.gpis.marketplace_link.services.publications.PublicationService;
+import com.gpis.marketplace_link.services.publications.PublicationSuggestService;
+import com.gpis.marketplace_link.services.publications.StagedUploadService;
+import com.gpis.marketplace_link.services.publications.valueObjects.StagedImages;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -23,15 +29,24 @@ import java.util.List;
 public class PublicationController {
 
     private final PublicationService service;
+    private final StagedUploadService stagedUploadService;
+    private final PublicationSuggestService suggestService;
+    private final PublicationClusterService clusterService;
 
-    public PublicationController(PublicationService service) {
+    public PublicationController(PublicationService service, StagedUploadService stagedUploadService,
+            PublicationSuggestService suggestService, PublicationClusterService clusterService) {
         this.service = service;
+        this.stagedUploadService = stagedUploadService;
+        this.suggestService = suggestService;
+        this.clusterService = clusterService;
     }
 
     @GetMapping
     public ResponseEntity<Page<PublicationSummaryResponse>> getAll(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "recent") String sort,
+            @RequestParam(required = false) String q,
             @RequestParam(required = false) List<Long> categoryIds,
             @RequestParam(required = false) BigDecimal minPrice,
             @RequestParam(required = false) BigDecimal maxPrice,
@@ -42,12 +57,68 @@ public class PublicationController {
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "publicationDate"));
 
         Page<PublicationSummaryResponse> response = service.getAll(
-                pageable, categoryIds, minPrice, maxPrice, lat, lon, distanceKm
+                pageable, sort, q, categoryIds, minPrice, maxPrice, lat, lon, distanceKm
         );
 
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Modo cursor del feed público, pensado para scroll infinito.
+     * Se activa enviando el parámetro {@code cursor} (vacío para la primera página) y
+     * en cada respuesta se devuelve {@code nextCursor} para solicitar la siguiente.
+     */
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPageResponse<PublicationSummaryResponse>> getAllByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) List<Long> categoryIds,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lon,
+            @RequestParam(required = false) Double distanceKm
+    ) {
+        CursorPageResponse<PublicationSummaryResponse> response = service.getAllByCursor(
+                cursor, size, q, categoryIds, minPrice, maxPrice, lat, lon, distanceKm
+        );
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Autocompletado para la caja de búsqueda: sugerencias por prefijo y tolerantes a errores de tipeo.
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<String>> suggest(
+            @RequestParam(defaultValue = "") String q,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        return ResponseEntity.ok(suggestService.suggest(q, limit));
+    }
+
+    /**
+     * Grupos de publicaciones para la vista de mapa: cantidad y centroide por celda dentro del
+     * rectángulo visible. Admite los mismos filtros que el feed.
+     */
+    @GetMapping("/clusters")
+    public ResponseEntity<List<PublicationClusterResponse>> clusters(
+            @RequestParam double minLat,
+            @RequestParam double minLon,
+            @RequestParam double maxLat,
+            @RequestParam double maxLon,
+            @RequestParam int zoom,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) List<Long> categoryIds,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice
+    ) {
+        return ResponseEntity.ok(clusterService.getClusters(
+                minLat, minLon, maxLat, maxLon, zoom, q, categoryIds, minPrice, maxPrice
+        ));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<PublicationResponse> getOne(@PathVariable Long id){
 
@@ -76,14 +147,19 @@ public class PublicationController {
     @PreAuthorize("hasRole('SELLER')")
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<PublicationResponse> create(@Valid @ModelAttribute PublicationCreateRequest request){
-        PublicationResponse response = service.create(request);
+        // Los permisos se validan antes de subir nada; las imágenes se suben antes de abrir la transacción
+        service.validateCanCreate(request.vendorId());
+        StagedImages images = stagedUploadService.stage(request.images());
+        PublicationResponse response = service.create(request, images);
         return ResponseEntity.ok(response);
     }
 
     @PreAuthorize("hasRole('SELLER')")
     @PutMapping(value = "/{id}",consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<PublicationResponse> update(@PathVariable Long id, @Valid @ModelAttribute PublicationUpdateRequest request){
-        PublicationResponse response = service.update(id,request);
+        service.validateCanUpdate(id, request.vendorId());
+        StagedImages newImages = stagedUploadService.stage(request.images());
+        PublicationResponse response = service.update(id, request, newImages);
         return ResponseEntity.ok(response);
     }
 
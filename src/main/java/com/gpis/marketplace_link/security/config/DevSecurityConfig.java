@@ -2,7 +2,10 @@ package com.gpis.marketplace_link.security.config;
 
 import com.gpis.marketplace_link.security.filters.JwtAuthenticationFilter;
 import com.gpis.marketplace_link.security.filters.JwtAuthorizationFilter;
+import com.gpis.marketplace_link.security.service.AuthTokenService;
+import com.gpis.marketplace_link.security.service.TokenRevocationIndex;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
@@ -15,6 +18,8 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.cors.CorsConfigurationSource;
 
+import java.util.concurrent.Executor;
+
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 
 /**
@@ -46,9 +51,13 @@ public class DevSecurityConfig {
     }
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http, AuthenticationManager authManager) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, AuthenticationManager authManager,
+                                           AuthTokenService authTokenService,
+                                           TokenRevocationIndex revocationIndex,
+                                           @Qualifier("loginExecutor") Executor loginExecutor) throws Exception {
 
-        JwtAuthenticationFilter jwtAuthenticationFilter = new JwtAuthenticationFilter(authManager);
+        JwtAuthenticationFilter jwtAuthenticationFilter =
+                new JwtAuthenticationFilter(authManager, authTokenService, loginExecutor);
         jwtAuthenticationFilter.setFilterProcessesUrl("/login");
 
         http
@@ -57,12 +66,13 @@ public class DevSecurityConfig {
                         .requestMatchers(HttpMethod.POST, "/login").permitAll() // Login público
                         .requestMatchers(HttpMethod.POST, "/api/users/**").permitAll()
                         .requestMatchers(HttpMethod.POST, "/api/auth/password-reset/**").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/auth/refresh", "/api/auth/logout").permitAll()
                         // Permitir endpoints públicos adicionales si es necesario
                         .requestMatchers(HttpMethod.GET, "/api/publications/**").permitAll() 
                         .requestMatchers(HttpMethod.GET, "/uploads/**").permitAll()
                         .anyRequest().authenticated())
                 .addFilter(jwtAuthenticationFilter)
-                .addFilter(new JwtAuthorizationFilter(authManager))
+                .addFilter(new JwtAuthorizationFilter(authManager, revocationIndex))
                 .csrf(AbstractHttpConfigurer::disable)
                 .cors(cors -> cors.configurationSource(corsConfigurationSource))
                 .sessionManagement(management ->
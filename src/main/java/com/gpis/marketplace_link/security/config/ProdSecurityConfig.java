@@ -2,7 +2,10 @@ package com.gpis.marketplace_link.security.config;
 
 import com.gpis.marketplace_link.security.filters.JwtAuthenticationFilter;
 import com.gpis.marketplace_link.security.filters.JwtAuthorizationFilter;
+import com.gpis.marketplace_link.security.service.AuthTokenService;
+import com.gpis.marketplace_link.security.service.TokenRevocationIndex;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
@@ -17,6 +20,8 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.cors.CorsConfigurationSource;
 
+import java.util.concurrent.Executor;
+
 /**
  * Configuración de seguridad para el entorno de producción (perfil "prod").
  *
@@ -45,6 +50,7 @@ public class ProdSecurityConfig {
             "/login",
             "/api/users/**",
             "/api/auth/password/**",
+            "/api/auth/refresh", "/api/auth/logout",
             "/api/auth/resend-verification", "/api/auth/verify-email/resend",
             "/actuator/health", // Docker health check endpoint
             "/error",
@@ -52,12 +58,7 @@ public class ProdSecurityConfig {
 
     private static final String[] WHITELIST_GET = {
             "/api/auth/verify-email",
-            "/uploads/**",
-            "/*.jpg",
-            "/*.jpeg",
-            "/*.png",
-            "/*.gif",
-            "/*.webp"
+            "/uploads/**"
     };
 
     @Bean
@@ -67,15 +68,18 @@ public class ProdSecurityConfig {
 
     @Bean
     public SecurityFilterChain prodSecurityFilterChain(HttpSecurity http,
-                                                       AuthenticationManager authManager) throws Exception {
+                                                       AuthenticationManager authManager,
+                                                       AuthTokenService authTokenService,
+                                                       TokenRevocationIndex revocationIndex,
+                                                       @Qualifier("loginExecutor") Executor loginExecutor) throws Exception {
         return http
                 .cors(cors -> cors.configurationSource(corsConfigurationSource))
                 .authorizeHttpRequests(authz -> authz
                         .requestMatchers(WHITELIST).permitAll()
                         .requestMatchers(HttpMethod.GET, WHITELIST_GET).permitAll()
                         .anyRequest().authenticated())
-                .addFilter(new JwtAuthenticationFilter(authManager))
-                .addFilter(new JwtAuthorizationFilter(authManager))
+                .addFilter(new JwtAuthenticationFilter(authManager, authTokenService, loginExecutor))
+                .addFilter(new JwtAuthorizationFilter(authManager, revocationIndex))
                 .csrf(AbstractHttpConfigurer::disable)
                 .sessionManagement(management ->
                         management.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
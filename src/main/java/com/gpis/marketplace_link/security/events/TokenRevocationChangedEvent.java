@@ -0,0 +1,8 @@
+package com.gpis.marketplace_link.security.events;
+
+/**
+ * Se publica al revocar o restaurar el acceso de un usuario, para actualizar el índice de
+ * revocación solo una vez confirmada la transacción.
+ */
+public record TokenRevocationChangedEvent(Long userId, boolean revoked) {
+}
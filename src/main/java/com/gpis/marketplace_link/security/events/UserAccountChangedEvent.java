@@ -0,0 +1,8 @@
+package com.gpis.marketplace_link.security.events;
+
+/**
+ * Se publica al cambiar los roles, el estado o el borrado lógico de un usuario, para invalidar
+ * su entrada en la caché de roles una vez confirmada la transacción.
+ */
+public record UserAccountChangedEvent(Long userId) {
+}
@@ -1,6 +1,8 @@
 package com.gpis.marketplace_link.security.filters;
 
+import com.gpis.marketplace_link.dto.user.TokenResponse;
 import com.gpis.marketplace_link.entities.User;
+import com.gpis.marketplace_link.security.service.AuthTokenService;
 import com.gpis.marketplace_link.security.user.CustomUserDetails;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -9,30 +11,36 @@ import org.springframework.security.authentication.AuthenticationServiceExceptio
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.core.type.TypeReference;
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
-import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
 import static com.gpis.marketplace_link.security.config.TokenJwtConfig.*;
 
 import java.io.IOException;
-import java.util.Collection;
-import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Filtro que intercepta las peticiones de inicio de sesión (login)
  * y se encarga de autenticar al usuario mediante su email y contraseña.
  *
- * Si la autenticación es exitosa, genera un token JWT y lo devuelve en la cabecera
- * y en el cuerpo de la respuesta. En caso contrario, responde con un error 401.
+ * Si la autenticación es exitosa, genera un token JWT de corta duración y un token de renovación
+ * ({@link AuthTokenService}) y los devuelve en la cabecera y en el cuerpo de la respuesta.
+ * En caso contrario, responde con un error 401.
  *
  * Extiende de UsernamePasswordAuthenticationFilter, lo que permite integrarse
  * directamente con el flujo de autenticación de Spring Security.
@@ -40,10 +48,160 @@ import java.util.Map;
 public class JwtAuthenticationFilter extends UsernamePasswordAuthenticationFilter {
 
     private final AuthenticationManager authenticationManager;
+    private final AuthTokenService authTokenService;
+    private final Executor loginExecutor;
     private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+    private static final long LOGIN_TIMEOUT_MS = 30_000;
+    private static final String RESPONSE_CLAIM_ATTRIBUTE = JwtAuthenticationFilter.class.getName() + ".responseClaim";
 
-    public JwtAuthenticationFilter(AuthenticationManager authenticationManager) {
+    /**
+     * @param loginExecutor ejecutor acotado donde se procesa el login fuera de los hilos del servidor
+     */
+    public JwtAuthenticationFilter(AuthenticationManager authenticationManager, AuthTokenService authTokenService,
+                                   Executor loginExecutor) {
         this.authenticationManager = authenticationManager;
+        this.authTokenService = authTokenService;
+        this.loginExecutor = Objects.requireNonNull(loginExecutor, "loginExecutor");
+    }
+
+    /**
+     * Procesa las peticiones de login de forma asíncrona: el hilo del servidor se libera de inmediato
+     * y la autenticación (BCrypt y consulta del usuario) corre en el ejecutor de login, que tiene su
+     * propio límite de concurrencia y cola. Si la cola está llena se responde 503 sin esperar.
+     *
+     * El hilo del login y el listener de timeout/error compiten por la respuesta mediante un
+     * {@link ResponseClaim}: solo quien la reclama primero escribe y llama a {@link AsyncContext#complete()}.
+     */
+    @Override
+    public void doFilter(ServletRequest req, ServletResponse res, FilterChain chain)
+            throws IOException, ServletException {
+        HttpServletRequest request = (HttpServletRequest) req;
+        HttpServletResponse response = (HttpServletResponse) res;
+
+        if (!request.isAsyncSupported() || !requiresAuthentication(request, response)) {
+            super.doFilter(req, res, chain);
+            return;
+        }
+
+        ResponseClaim claim = new ResponseClaim();
+        request.setAttribute(RESPONSE_CLAIM_ATTRIBUTE, claim);
+
+        AsyncContext asyncContext = request.startAsync(request, response);
+        asyncContext.setTimeout(LOGIN_TIMEOUT_MS);
+        asyncContext.addListener(new LoginTimeoutListener(claim));
+
+        try {
+            loginExecutor.execute(() -> authenticateAsync(asyncContext, request, response, chain, claim));
+        } catch (RejectedExecutionException ex) {
+            log.warn("[JWT-LOGIN] Cola de login llena, se rechaza el intento");
+            if (claim.claimForLogin()) {
+                writeError(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE,
+                        "Hay demasiados inicios de sesión en curso. Intenta nuevamente en unos segundos.");
+                asyncContext.complete();
+            }
+        }
+    }
+
+    private void authenticateAsync(AsyncContext asyncContext, HttpServletRequest request,
+                                   HttpServletResponse response, FilterChain chain, ResponseClaim claim) {
+        try {
+            super.doFilter(request, response, chain);
+        } catch (Exception ex) {
+            log.error("[JWT-LOGIN] ❌ Error inesperado procesando el login", ex);
+            if (claim.claimForLogin() && !response.isCommitted()) {
+                response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            }
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+
+        if (claim.claimForLogin()) {
+            asyncContext.complete();
+        } else {
+            // El listener ya respondió y cerró la petición por timeout o error
+            log.warn("[JWT-LOGIN] El login terminó después del tiempo límite, se descarta el resultado");
+        }
+    }
+
+    /**
+     * Reclama la respuesta para el hilo del login antes de escribirla. En modo síncrono no hay
+     * competencia y siempre se concede.
+     */
+    private boolean claimResponseForLogin(HttpServletRequest request) {
+        return !(request.getAttribute(RESPONSE_CLAIM_ATTRIBUTE) instanceof ResponseClaim claim) || claim.claimForLogin();
+    }
+
+    private void writeError(HttpServletResponse response, int status, String message) throws IOException {
+        Map<String, String> body = new HashMap<>();
+        body.put("message", message);
+
+        response.setStatus(status);
+        response.setContentType(CONTENT_TYPE);
+        response.getWriter().write(new ObjectMapper().writeValueAsString(body));
+    }
+
+    /**
+     * Dueño de la respuesta de un login asíncrono: libre, del hilo del login o del listener.
+     * Una vez reclamada no cambia de dueño.
+     */
+    private static final class ResponseClaim {
+
+        private static final int FREE = 0;
+        private static final int LOGIN = 1;
+        private static final int LISTENER = 2;
+
+        private final AtomicInteger owner = new AtomicInteger(FREE);
+
+        /** @return true si la respuesta es (o ya era) del hilo del login */
+        boolean claimForLogin() {
+            return owner.compareAndSet(FREE, LOGIN) || owner.get() == LOGIN;
+        }
+
+        /** @return true si el listener se quedó con la respuesta */
+        boolean claimForListener() {
+            return owner.compareAndSet(FREE, LISTENER);
+        }
+    }
+
+    private class LoginTimeoutListener implements AsyncListener {
+
+        private final ResponseClaim claim;
+
+        LoginTimeoutListener(ResponseClaim claim) {
+            this.claim = claim;
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) throws IOException {
+            if (!claim.claimForListener()) {
+                // El hilo del login ya está escribiendo la respuesta y cerrará la petición
+                return;
+            }
+            HttpServletResponse response = (HttpServletResponse) event.getSuppliedResponse();
+            if (!response.isCommitted()) {
+                writeError(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE,
+                        "El inicio de sesión tardó demasiado. Intenta nuevamente.");
+            }
+            event.getAsyncContext().complete();
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            // Sin acciones adicionales
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            if (claim.claimForListener()) {
+                log.warn("[JWT-LOGIN] Error de conexión durante el login", event.getThrowable());
+                event.getAsyncContext().complete();
+            }
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Sin acciones adicionales
+        }
     }
 
     /**
@@ -110,8 +268,8 @@ public class JwtAuthenticationFilter extends UsernamePasswordAuthenticationFilte
      * Método ejecutado cuando la autenticación es exitosa.
      *
      * Crea el token JWT con la información del usuario autenticado
-     * (nombre, ID y roles), lo agrega a la cabecera de la respuesta y
-     * también lo devuelve en el cuerpo en formato JSON.
+     * (nombre, ID y roles) junto con su token de renovación, agrega el JWT
+     * a la cabecera de la respuesta y devuelve ambos en el cuerpo en formato JSON.
      *
      * @param request  petición original
      * @param response respuesta HTTP donde se añade el JWT
@@ -121,30 +279,23 @@ public class JwtAuthenticationFilter extends UsernamePasswordAuthenticationFilte
     @Override
     protected void successfulAuthentication(HttpServletRequest request, HttpServletResponse response, FilterChain chain,
                                             Authentication authResult) throws IOException, ServletException {
+        if (!claimResponseForLogin(request)) {
+            log.warn("[JWT-LOGIN] Autenticación exitosa después del tiempo límite, no se emiten tokens");
+            return;
+        }
         CustomUserDetails customUserDetails = (CustomUserDetails) authResult.getPrincipal();
         User user  = customUserDetails.user();
 
         String username = user.getUsername();
-        Long userId = user.getId();
-
-        Collection<? extends GrantedAuthority> authorities = authResult.getAuthorities();
-        Claims claims = Jwts.claims()
-                .add("authorities", new ObjectMapper().writeValueAsString(authorities))
-                .add("userId", userId)
-                .build();
 
-        String jwt = Jwts.builder()
-                .subject(username)
-                .claims(claims)
-                .expiration(new Date(System.currentTimeMillis() + 3600000))
-                .issuedAt(new Date())
-                .signWith(SECRET_KEY)
-                .compact();
+        TokenResponse tokens = authTokenService.issue(user, authResult.getAuthorities());
 
-        response.addHeader(HEADER_AUTHORIZATION, PREFIX_TOKEN + jwt);
+        response.addHeader(HEADER_AUTHORIZATION, PREFIX_TOKEN + tokens.token());
 
-        Map<String, String> body = new HashMap<>();
-        body.put("token", jwt);
+        Map<String, Object> body = new HashMap<>();
+        body.put("token", tokens.token());
+        body.put("refreshToken", tokens.refreshToken());
+        body.put("expiresIn", tokens.expiresIn());
         body.put("username", username);
         body.put("message", String.format("Hello %s, you have been started session with sucessfully", username));
 
@@ -161,6 +312,9 @@ public class JwtAuthenticationFilter extends UsernamePasswordAuthenticationFilte
     @Override
     protected void unsuccessfulAuthentication(HttpServletRequest request, HttpServletResponse response,
                                               AuthenticationException failed) throws IOException, ServletException {
+        if (!claimResponseForLogin(request)) {
+            return;
+        }
         Map<String, String> body = new HashMap<>();
         String message = "Email o contraseña inválidos.";
 
@@ -1,11 +1,12 @@
 package com.gpis.marketplace_link.security.filters;
 
 import com.gpis.marketplace_link.entities.User;
+import com.gpis.marketplace_link.security.service.TokenRevocationIndex;
 import com.gpis.marketplace_link.security.user.CustomUserDetails;
-import com.gpis.marketplace_link.security.user.SimpleGrantedAuthorityJsonCreator;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gpis.marketplace_link.security.user.JwtAuthorities;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -14,13 +15,19 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
 import java.io.IOException;
-import java.util.Arrays;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.gpis.marketplace_link.security.config.TokenJwtConfig.*;
 
@@ -34,12 +41,27 @@ import static com.gpis.marketplace_link.security.config.TokenJwtConfig.*;
  * se crea un objeto de autenticación y se almacena en el contexto de seguridad
  * de Spring (SecurityContextHolder).
  *
- * Si el token es inválido o no está presente, la petición continúa sin usuario autenticado.
+ * Si el token es inválido, no está presente o su usuario fue revocado (bloqueado o dado de baja,
+ * ver {@link TokenRevocationIndex}), la petición continúa sin usuario autenticado.
  */
 public class JwtAuthorizationFilter extends BasicAuthenticationFilter {
 
-    public JwtAuthorizationFilter(AuthenticationManager authenticationManager) {
+    private static final int MAX_CACHED_TOKENS = 10_000;
+
+    /** El parser es inmutable y seguro para uso concurrente: se construye una sola vez. */
+    private static final JwtParser JWT_PARSER = Jwts.parser().verifyWith(SECRET_KEY).build();
+
+    /**
+     * Tokens ya verificados, indexados por el hash SHA-256 del token (no se guarda el token en sí).
+     * Cada entrada vive hasta la expiración del token.
+     */
+    private final Map<String, CachedAuthentication> verifiedTokens = new ConcurrentHashMap<>();
+
+    private final TokenRevocationIndex revocationIndex;
+
+    public JwtAuthorizationFilter(AuthenticationManager authenticationManager, TokenRevocationIndex revocationIndex) {
         super(authenticationManager);
+        this.revocationIndex = revocationIndex;
     }
 
     /**
@@ -49,9 +71,10 @@ public class JwtAuthorizationFilter extends BasicAuthenticationFilter {
      * Pasos principales:
      * 1. Lee la cabecera "Authorization".
      * 2. Si existe y comienza con el prefijo configurado (por ejemplo, "Bearer "),
-     *    extrae el token y lo valida usando la clave secreta.
-     * 3. Si el token es válido, obtiene el usuario y sus roles, y los establece
-     *    en el contexto de seguridad.
+     *    busca el token en la caché de tokens verificados; si no está, lo valida
+     *    usando la clave secreta y lo guarda en la caché.
+     * 3. Si el token es válido y el usuario no está revocado, obtiene el usuario y sus
+     *    roles, y los establece en el contexto de seguridad.
      * 4. Si no hay token o es inválido, la petición sigue sin autenticación.
      *
      * @param request  petición HTTP entrante
@@ -73,30 +96,85 @@ public class JwtAuthorizationFilter extends BasicAuthenticationFilter {
 
         String token = header.substring(PREFIX_TOKEN.length()).trim();
         try {
-            Claims claims = Jwts.parser().verifyWith(SECRET_KEY).build().parseSignedClaims(token).getPayload();
-            String username = claims.getSubject();
-            Long userId = claims.get("userId", Long.class);
-            Object authoritiesClaims = claims.get("authorities");
-
-            Collection<? extends GrantedAuthority> authorities = Arrays.asList(
-                    new ObjectMapper()
-                            .addMixIn(SimpleGrantedAuthority.class, SimpleGrantedAuthorityJsonCreator.class)
-                            .readValue(authoritiesClaims.toString().getBytes(), SimpleGrantedAuthority[].class)
-            );
-
-            User user = new User();
-            user.setId(userId);
-            user.setEmail(username);
-            CustomUserDetails userDetails = new CustomUserDetails(user);
-
-            UsernamePasswordAuthenticationToken auth =
-                    new UsernamePasswordAuthenticationToken(userDetails, null, authorities);
-
-            SecurityContextHolder.getContext().setAuthentication(auth);
+            UsernamePasswordAuthenticationToken auth = authenticate(token);
+            if (auth == null) {
+                SecurityContextHolder.clearContext();
+            } else {
+                SecurityContextHolder.getContext().setAuthentication(auth);
+            }
             chain.doFilter(request, response);
         } catch (JwtException ex) {
             SecurityContextHolder.clearContext();
             chain.doFilter(request, response);
         }
     }
+
+    private UsernamePasswordAuthenticationToken authenticate(String token) throws IOException {
+        long now = System.currentTimeMillis();
+        String key = hash(token);
+
+        CachedAuthentication cached = verifiedTokens.get(key);
+        if (cached != null) {
+            if (cached.expiresAt() > now) {
+                return revocationIndex.isRevoked(cached.userId()) ? null : cached.authentication();
+            }
+            verifiedTokens.remove(key);
+        }
+
+        Claims claims = JWT_PARSER.parseSignedClaims(token).getPayload();
+        String username = claims.getSubject();
+        Long userId = claims.get("userId", Long.class);
+        if (revocationIndex.isRevoked(userId)) {
+            return null;
+        }
+        Collection<? extends GrantedAuthority> authorities = JwtAuthorities.decode(claims.get(JwtAuthorities.CLAIM));
+
+        User user = new User();
+        user.setId(userId);
+        user.setEmail(username);
+        CustomUserDetails userDetails = new CustomUserDetails(user);
+
+        UsernamePasswordAuthenticationToken auth =
+                new UsernamePasswordAuthenticationToken(userDetails, null, authorities);
+
+        Date expiration = claims.getExpiration();
+        if (expiration != null) {
+            putInCache(key, new CachedAuthentication(auth, userId, expiration.getTime()), now);
+        }
+        return auth;
+    }
+
+    private void putInCache(String key, CachedAuthentication entry, long now) {
+        if (verifiedTokens.size() >= MAX_CACHED_TOKENS) {
+            verifiedTokens.values().removeIf(c -> c.expiresAt() <= now);
+            if (verifiedTokens.size() >= MAX_CACHED_TOKENS) {
+                evictOldest(verifiedTokens.size() - MAX_CACHED_TOKENS * 9 / 10);
+            }
+        }
+        verifiedTokens.put(key, entry);
+    }
+
+    /**
+     * Descarta los tokens más próximos a vencer en lugar de vaciar toda la caché, para que no todos
+     * los usuarios activos vuelvan a verificar la firma a la vez.
+     */
+    private void evictOldest(int count) {
+        verifiedTokens.entrySet().stream()
+                .sorted(Comparator.comparingLong(entry -> entry.getValue().expiresAt()))
+                .limit(count)
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(verifiedTokens::remove);
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no está disponible", e);
+        }
+    }
+
+    private record CachedAuthentication(UsernamePasswordAuthenticationToken authentication, Long userId, long expiresAt) {}
 }
@@ -0,0 +1,174 @@
+package com.gpis.marketplace_link.security.service;
+
+import com.gpis.marketplace_link.dto.user.TokenResponse;
+import com.gpis.marketplace_link.entities.RefreshToken;
+import com.gpis.marketplace_link.entities.User;
+import com.gpis.marketplace_link.exceptions.business.users.InvalidRefreshTokenException;
+import com.gpis.marketplace_link.repositories.RefreshTokenRepository;
+import com.gpis.marketplace_link.repositories.UserRepository;
+import com.gpis.marketplace_link.security.events.TokenRevocationChangedEvent;
+import com.gpis.marketplace_link.security.user.CustomUserDetails;
+import com.gpis.marketplace_link.security.user.JwtAuthorities;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.UUID;
+
+import static com.gpis.marketplace_link.security.config.TokenJwtConfig.SECRET_KEY;
+
+/**
+ * Emite los tokens de acceso (JWT de corta duración) y los tokens de renovación rotativos.
+ *
+ * Con el token de renovación el cliente obtiene un nuevo par de tokens sin repetir el login
+ * (y sin volver a pagar el costo de BCrypt). Cada token de renovación se puede usar una sola vez;
+ * presentar uno ya usado revoca toda su familia, porque indica que fue robado.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AuthTokenService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int REFRESH_TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final TokenRevocationIndex revocationIndex;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${JWT_ACCESS_TOKEN_TTL_MINUTES:15}")
+    private long accessTokenTtlMinutes;
+
+    @Value("${JWT_REFRESH_TOKEN_TTL_DAYS:14}")
+    private long refreshTokenTtlDays;
+
+    /**
+     * Emite un par de tokens para un login exitoso, iniciando una nueva familia de renovación.
+     */
+    @Transactional
+    public TokenResponse issue(User user, Collection<? extends GrantedAuthority> authorities) {
+        return issue(user, authorities, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Canjea un token de renovación por un nuevo par de tokens. El token usado queda revocado.
+     *
+     * @throws InvalidRefreshTokenException si el token no existe, venció, ya se usó o el usuario
+     *                                      ya no puede iniciar sesión
+     */
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public TokenResponse refresh(String rawToken) {
+        LocalDateTime now = LocalDateTime.now();
+        String tokenHash = hash(rawToken);
+
+        RefreshToken consumed = refreshTokenRepository.consume(tokenHash, now).orElse(null);
+        if (consumed == null) {
+            refreshTokenRepository.findByTokenHash(tokenHash)
+                    .filter(token -> token.getRevokedAt() != null)
+                    .ifPresent(token -> {
+                        log.warn("Token de renovación reutilizado para el usuario {}, se revoca la familia", token.getUserId());
+                        refreshTokenRepository.revokeFamily(token.getFamilyId(), now);
+                    });
+            throw new InvalidRefreshTokenException();
+        }
+
+        User user = userRepository.findById(consumed.getUserId()).orElse(null);
+        if (user == null || revocationIndex.isRevoked(user.getId())) {
+            throw new InvalidRefreshTokenException();
+        }
+
+        CustomUserDetails userDetails = new CustomUserDetails(user);
+        if (!userDetails.isEnabled() || !userDetails.isAccountNonLocked()) {
+            refreshTokenRepository.revokeFamily(consumed.getFamilyId(), now);
+            throw new InvalidRefreshTokenException();
+        }
+
+        return issue(user, userDetails.getAuthorities(), consumed.getFamilyId());
+    }
+
+    /**
+     * Cierra la sesión revocando la familia del token de renovación. El token de acceso vigente
+     * sigue siendo válido hasta su expiración, que es corta.
+     */
+    @Transactional
+    public void logout(String rawToken) {
+        LocalDateTime now = LocalDateTime.now();
+        refreshTokenRepository.consume(hash(rawToken), now)
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId(), now));
+    }
+
+    /**
+     * Corta el acceso de un usuario: sus tokens de renovación quedan revocados en la misma
+     * transacción y sus tokens de acceso dejan de aceptarse en cuanto esta se confirma.
+     */
+    @Transactional
+    public void revokeUser(Long userId) {
+        refreshTokenRepository.revokeAllByUserId(userId, LocalDateTime.now());
+        eventPublisher.publishEvent(new TokenRevocationChangedEvent(userId, true));
+    }
+
+    /** Vuelve a aceptar los tokens de acceso del usuario una vez confirmada la transacción. */
+    public void restoreUser(Long userId) {
+        eventPublisher.publishEvent(new TokenRevocationChangedEvent(userId, false));
+    }
+
+    @Transactional
+    public int purgeExpired() {
+        return refreshTokenRepository.deleteExpired(LocalDateTime.now());
+    }
+
+    private TokenResponse issue(User user, Collection<? extends GrantedAuthority> authorities, String familyId) {
+        long ttlMillis = accessTokenTtlMinutes * 60_000;
+        Date issuedAt = new Date();
+
+        Claims claims = Jwts.claims()
+                .add(JwtAuthorities.CLAIM, JwtAuthorities.encode(authorities))
+                .add("userId", user.getId())
+                .build();
+
+        String accessToken = Jwts.builder()
+                .subject(user.getUsername())
+                .claims(claims)
+                .expiration(new Date(issuedAt.getTime() + ttlMillis))
+                .issuedAt(issuedAt)
+                .signWith(SECRET_KEY)
+                .compact();
+
+        String refreshToken = generateRefreshToken();
+        refreshTokenRepository.save(new RefreshToken(user.getId(), hash(refreshToken), familyId,
+                LocalDateTime.now().plusDays(refreshTokenTtlDays)));
+
+        return new TokenResponse(accessToken, refreshToken, ttlMillis / 1000);
+    }
+
+    private static String generateRefreshToken() {
+        byte[] bytes = new byte[REFRESH_TOKEN_BYTES];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no está disponible", e);
+        }
+    }
+}
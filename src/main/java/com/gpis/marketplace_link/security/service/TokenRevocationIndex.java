@@ -0,0 +1,160 @@
+package com.gpis.marketplace_link.security.service;
+
+import com.gpis.marketplace_link.repositories.UserRepository;
+import com.gpis.marketplace_link.security.events.TokenRevocationChangedEvent;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Índice en memoria de los usuarios cuyos tokens ya no deben aceptarse (bloqueados, inactivos o eliminados).
+ *
+ * {@link #isRevoked(Long)} se consulta en cada petición autenticada: primero un filtro de Bloom de 8 KB
+ * descarta en O(1) a la gran mayoría de usuarios (que no están revocados) y solo ante una posible
+ * coincidencia se consulta el conjunto exacto, por lo que no hay falsos positivos.
+ *
+ * El índice se construye desde la base de datos al iniciar y se reconstruye periódicamente
+ * ({@code TokenRevocationRefresher}), lo que además limpia los bits de usuarios restaurados.
+ * Los cambios de esta instancia se aplican al confirmarse su transacción; los de otras instancias
+ * se ven en la siguiente reconstrucción.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TokenRevocationIndex {
+
+    private static final int BLOOM_BITS = 1 << 16;
+    private static final int BLOOM_HASHES = 3;
+
+    private final UserRepository userRepository;
+
+    private volatile Snapshot snapshot = new Snapshot();
+
+    private final Object lock = new Object();
+
+    /** Cambios recibidos durante una reconstrucción; se reaplican sobre el índice nuevo. */
+    private List<Change> changesDuringRebuild;
+
+    @PostConstruct
+    public void init() {
+        rebuild();
+    }
+
+    public boolean isRevoked(Long userId) {
+        if (userId == null) {
+            return false;
+        }
+        Snapshot current = snapshot;
+        return current.mightContain(userId) && current.revokedIds.contains(userId);
+    }
+
+    /**
+     * Aplica una revocación o restauración después del commit: si la transacción se revierte,
+     * el índice no cambia.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRevocationChanged(TokenRevocationChangedEvent event) {
+        record(new Change(event.userId(), event.revoked()));
+    }
+
+    /**
+     * Vuelve a cargar los usuarios revocados desde la base de datos y reemplaza el índice.
+     * Los cambios que llegan mientras se consulta la base se aplican también sobre el índice nuevo,
+     * para no perder un bloqueo que ocurra durante la reconstrucción.
+     */
+    public int rebuild() {
+        synchronized (lock) {
+            changesDuringRebuild = new ArrayList<>();
+        }
+
+        Snapshot rebuilt = new Snapshot();
+        try {
+            userRepository.findRevokedUserIds().forEach(rebuilt::add);
+        } catch (RuntimeException ex) {
+            synchronized (lock) {
+                changesDuringRebuild = null;
+            }
+            throw ex;
+        }
+
+        synchronized (lock) {
+            changesDuringRebuild.forEach(change -> change.applyTo(rebuilt));
+            changesDuringRebuild = null;
+            snapshot = rebuilt;
+        }
+
+        int size = rebuilt.revokedIds.size();
+        log.debug("Índice de revocación reconstruido con {} usuarios", size);
+        return size;
+    }
+
+    private void record(Change change) {
+        if (change.userId() == null) {
+            return;
+        }
+        synchronized (lock) {
+            change.applyTo(snapshot);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+        }
+    }
+
+    private record Change(Long userId, boolean revoked) {
+
+        void applyTo(Snapshot target) {
+            if (revoked) {
+                target.add(userId);
+            } else {
+                // El bit del filtro se queda encendido hasta la próxima reconstrucción; el conjunto exacto decide
+                target.revokedIds.remove(userId);
+            }
+        }
+    }
+
+    private static final class Snapshot {
+
+        private final AtomicLongArray bits = new AtomicLongArray(BLOOM_BITS / Long.SIZE);
+        private final Set<Long> revokedIds = ConcurrentHashMap.newKeySet();
+
+        void add(Long userId) {
+            long h1 = mix(userId);
+            long h2 = mix(h1) | 1;
+            for (int i = 0; i < BLOOM_HASHES; i++) {
+                int bit = (int) ((h1 + i * h2) & (BLOOM_BITS - 1));
+                long mask = 1L << (bit & (Long.SIZE - 1));
+                bits.getAndUpdate(bit >>> 6, word -> word | mask);
+            }
+            revokedIds.add(userId);
+        }
+
+        boolean mightContain(Long userId) {
+            long h1 = mix(userId);
+            long h2 = mix(h1) | 1;
+            for (int i = 0; i < BLOOM_HASHES; i++) {
+                int bit = (int) ((h1 + i * h2) & (BLOOM_BITS - 1));
+                if ((bits.get(bit >>> 6) & (1L << (bit & (Long.SIZE - 1)))) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /** Mezcla SplitMix64: reparte IDs consecutivos de forma uniforme en el filtro. */
+        private static long mix(long value) {
+            long z = value + 0x9E3779B97F4A7C15L;
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            return z ^ (z >>> 31);
+        }
+    }
+}
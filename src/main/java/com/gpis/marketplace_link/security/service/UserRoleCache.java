@@ -0,0 +1,121 @@
+package com.gpis.marketplace_link.security.service;
+
+import com.gpis.marketplace_link.repositories.UserRepository;
+import com.gpis.marketplace_link.security.events.UserAccountChangedEvent;
+import com.gpis.marketplace_link.security.user.CustomUserDetails;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Resuelve los roles de un usuario sin cargar la entidad ni su colección perezosa de roles.
+ *
+ * Si el usuario consultado es el autenticado, los roles salen de las autoridades del JWT y no hay
+ * consulta. Para cualquier otro usuario se usa una caché pequeña con vencimiento; al faltar la
+ * entrada se cargan los roles en una sola consulta.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserRoleCache {
+
+    private static final int MAX_CACHED_USERS = 10_000;
+
+    private final UserRepository userRepository;
+
+    @Value("${USER_ROLE_CACHE_TTL_SECONDS:300}")
+    private long ttlSeconds;
+
+    private final Map<Long, CachedRoles> rolesByUserId = new ConcurrentHashMap<>();
+
+    /**
+     * @return los nombres de los roles del usuario, o vacío si el usuario no existe
+     */
+    public Optional<Set<String>> rolesOf(Long userId) {
+        if (userId == null) {
+            return Optional.empty();
+        }
+
+        Set<String> fromPrincipal = rolesOfAuthenticatedUser(userId);
+        if (fromPrincipal != null) {
+            return Optional.of(fromPrincipal);
+        }
+
+        long now = System.currentTimeMillis();
+        CachedRoles cached = rolesByUserId.get(userId);
+        if (cached != null && cached.expiresAt() > now) {
+            return Optional.of(cached.roles());
+        }
+
+        List<String> names = userRepository.findRoleNamesByUserId(userId);
+        if (names.isEmpty()) {
+            rolesByUserId.remove(userId);
+            return Optional.empty();
+        }
+
+        Set<String> roles = names.stream()
+                .filter(name -> !name.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        putInCache(userId, new CachedRoles(roles, now + ttlSeconds * 1000), now);
+        return Optional.of(roles);
+    }
+
+    /**
+     * Invalida la entrada del usuario después del commit, para que una lectura concurrente no vuelva
+     * a guardar los roles anteriores antes de que el cambio sea visible.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserAccountChanged(UserAccountChangedEvent event) {
+        evict(event.userId());
+    }
+
+    public void evict(Long userId) {
+        rolesByUserId.remove(userId);
+    }
+
+    private Set<String> rolesOfAuthenticatedUser(Long userId) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null
+                || !(authentication.getPrincipal() instanceof CustomUserDetails userDetails)
+                || !userId.equals(userDetails.user().getId())) {
+            return null;
+        }
+        return authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    private void putInCache(Long userId, CachedRoles entry, long now) {
+        if (rolesByUserId.size() >= MAX_CACHED_USERS) {
+            rolesByUserId.values().removeIf(c -> c.expiresAt() <= now);
+            if (rolesByUserId.size() >= MAX_CACHED_USERS) {
+                evictOldest(rolesByUserId.size() - MAX_CACHED_USERS * 9 / 10);
+            }
+        }
+        rolesByUserId.put(userId, entry);
+    }
+
+    /** Descarta las entradas más próximas a vencer en lugar de vaciar toda la caché. */
+    private void evictOldest(int count) {
+        rolesByUserId.entrySet().stream()
+                .sorted(Comparator.comparingLong(entry -> entry.getValue().expiresAt()))
+                .limit(count)
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(rolesByUserId::remove);
+    }
+
+    private record CachedRoles(Set<String> roles, long expiresAt) {}
+}
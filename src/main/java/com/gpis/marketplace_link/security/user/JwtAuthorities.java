@@ -0,0 +1,82 @@
+package com.gpis.marketplace_link.security.user;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Codifica y decodifica el claim {@code authorities} del JWT.
+ *
+ * El claim es un arreglo JSON nativo con los nombres de los roles (por ejemplo
+ * {@code ["ROLE_SELLER"]}), en lugar de un texto con objetos JSON serializados dentro.
+ * Al decodificar, los roles conocidos se resuelven a instancias únicas y precreadas de
+ * {@link GrantedAuthority}, y cada combinación de roles ya vista devuelve siempre la misma lista
+ * inmutable, por lo que una petición normal no crea objetos nuevos.
+ *
+ * Los tokens emitidos con el formato anterior (texto JSON) se siguen aceptando.
+ */
+public final class JwtAuthorities {
+
+    public static final String CLAIM = "authorities";
+
+    private static final int MAX_CACHED_COMBINATIONS = 64;
+
+    private static final Map<String, GrantedAuthority> KNOWN_AUTHORITIES = Stream.of(
+                    "ROLE_ADMIN", "ROLE_MODERATOR", "ROLE_SELLER", "ROLE_BUYER", "ROLE_USER")
+            .collect(Collectors.toUnmodifiableMap(Function.identity(), SimpleGrantedAuthority::new));
+
+    private static final Map<List<?>, List<GrantedAuthority>> DECODED = new ConcurrentHashMap<>();
+
+    private static final ObjectReader LEGACY_READER = new ObjectMapper()
+            .addMixIn(SimpleGrantedAuthority.class, SimpleGrantedAuthorityJsonCreator.class)
+            .readerFor(SimpleGrantedAuthority[].class);
+
+    private JwtAuthorities() {
+    }
+
+    public static List<String> encode(Collection<? extends GrantedAuthority> authorities) {
+        return authorities.stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+    }
+
+    public static List<GrantedAuthority> decode(Object claim) throws IOException {
+        if (claim == null) {
+            return List.of();
+        }
+        if (claim instanceof List<?> names) {
+            List<GrantedAuthority> cached = DECODED.get(names);
+            if (cached != null) {
+                return cached;
+            }
+            List<GrantedAuthority> decoded = names.stream()
+                    .map(name -> authority(String.valueOf(name)))
+                    .toList();
+            if (DECODED.size() < MAX_CACHED_COMBINATIONS) {
+                DECODED.put(List.copyOf(names), decoded);
+            }
+            return decoded;
+        }
+        // Formato anterior: texto JSON con objetos {"authority": "..."}
+        SimpleGrantedAuthority[] legacy = LEGACY_READER.readValue(claim.toString());
+        return Arrays.stream(legacy)
+                .map(authority -> authority(authority.getAuthority()))
+                .toList();
+    }
+
+    private static GrantedAuthority authority(String name) {
+        GrantedAuthority known = KNOWN_AUTHORITIES.get(name);
+        return known != null ? known : new SimpleGrantedAuthority(name);
+    }
+}
@@ -4,8 +4,12 @@ import com.azure.storage.blob.BlobClient;
 import com.azure.storage.blob.BlobContainerClient;
 import com.azure.storage.blob.BlobServiceClient;
 import com.azure.storage.blob.BlobServiceClientBuilder;
+import com.azure.core.util.BinaryData;
+import com.azure.core.util.Context;
 import com.azure.storage.blob.models.BlobHttpHeaders;
+import com.azure.storage.blob.models.ParallelTransferOptions;
 import com.azure.storage.blob.models.PublicAccessType;
+import com.azure.storage.blob.options.BlobParallelUploadOptions;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -19,6 +23,13 @@ import java.util.UUID;
 @Slf4j
 @Service
 public class AzureBlobStorageService {
+
+    /** Bloques de 1MB: la subida nunca mantiene en memoria más que unos pocos bloques del archivo. */
+    private static final ParallelTransferOptions UPLOAD_TRANSFER_OPTIONS = new ParallelTransferOptions()
+            .setBlockSizeLong(1024L * 1024L)
+            .setMaxSingleUploadSizeLong(1024L * 1024L)
+            .setMaxConcurrency(2);
+
     @Value("${azure.storage.connection-string}")
     private String connectionString;
     @Value("${azure.storage.container-name}")
@@ -67,6 +78,20 @@ public class AzureBlobStorageService {
     }
 
     public String uploadFile(MultipartFile file, String directory) throws IOException {
+        // Generar nombre único para el archivo
+        String originalFilename = file.getOriginalFilename();
+        String extension = originalFilename != null && originalFilename.contains(".") 
+            ? originalFilename.substring(originalFilename.lastIndexOf("."))
+            : "";
+
+        return uploadFile(file, directory, UUID.randomUUID() + extension);
+    }
+
+    /**
+     * Sube el archivo con un nombre dado. Si ya existe un blob con ese nombre se sobrescribe,
+     * lo que es seguro cuando el nombre se deriva del contenido.
+     */
+    public String uploadFile(MultipartFile file, String directory, String fileName) throws IOException {
         if (!azureStorageEnabled) {
             throw new UnsupportedOperationException("Azure Storage está deshabilitado");
         }
@@ -75,13 +100,7 @@ public class AzureBlobStorageService {
             throw new IllegalArgumentException("El archivo está vacío");
         }
 
-        // Generar nombre único para el archivo
-        String originalFilename = file.getOriginalFilename();
-        String extension = originalFilename != null && originalFilename.contains(".") 
-            ? originalFilename.substring(originalFilename.lastIndexOf("."))
-            : "";
-        
-        String blobName = directory + "/" + UUID.randomUUID() + extension;
+        String blobName = directory + "/" + fileName;
 
         try {
             // Obtener el BlobClient
@@ -91,10 +110,12 @@ public class AzureBlobStorageService {
             BlobHttpHeaders headers = new BlobHttpHeaders()
                     .setContentType(file.getContentType());
 
-            // Subir el archivo
+            // Subir el archivo en bloques directamente desde el stream, con los headers en la misma petición
             try (InputStream inputStream = file.getInputStream()) {
-                blobClient.upload(inputStream, file.getSize(), true);
-                blobClient.setHttpHeaders(headers);
+                BlobParallelUploadOptions options = new BlobParallelUploadOptions(inputStream)
+                        .setHeaders(headers)
+                        .setParallelTransferOptions(UPLOAD_TRANSFER_OPTIONS);
+                blobClient.uploadWithResponse(options, null, Context.NONE);
             }
 
             // Retornar la URL pública del blob (decodificada para evitar %2F)
@@ -109,7 +130,51 @@ public class AzureBlobStorageService {
             throw new IOException("Error al subir archivo a Azure Storage", e);
         }
     }
-    public boolean deleteFile(String blobUrl) {
+    /**
+     * Sube contenido ya generado en memoria (por ejemplo, variantes redimensionadas de una imagen).
+     */
+    public String uploadBytes(byte[] content, String directory, String fileName, String contentType) throws IOException {
+        if (!azureStorageEnabled) {
+            throw new UnsupportedOperationException("Azure Storage está deshabilitado");
+        }
+
+        String blobName = directory + "/" + fileName;
+
+        try {
+            BlobClient blobClient = containerClient.getBlobClient(blobName);
+            BlobParallelUploadOptions options = new BlobParallelUploadOptions(BinaryData.fromBytes(content))
+                    .setHeaders(new BlobHttpHeaders().setContentType(contentType));
+            blobClient.uploadWithResponse(options, null, Context.NONE);
+
+            return java.net.URLDecoder.decode(blobClient.getBlobUrl(), java.nio.charset.StandardCharsets.UTF_8);
+        } catch (Exception e) {
+            log.error("❌ Error al subir contenido a Azure Blob Storage: {}", e.getMessage(), e);
+            throw new IOException("Error al subir archivo a Azure Storage", e);
+        }
+    }
+
+    /**
+     * Abre un stream de lectura sobre un blob existente, sin descargarlo completo.
+     */
+    public InputStream openInputStream(String blobUrl) throws IOException {
+        if (!azureStorageEnabled) {
+            throw new UnsupportedOperationException("Azure Storage está deshabilitado");
+        }
+
+        try {
+            return containerClient.getBlobClient(extractBlobNameFromUrl(blobUrl)).openInputStream();
+        } catch (Exception e) {
+            throw new IOException("No se pudo leer el blob " + blobUrl, e);
+        }
+    }
+
+    /**
+     * Elimina el blob con una sola petición.
+     *
+     * @return true si se eliminó, false si no existía
+     * @throws IOException si Azure no pudo completar la operación, para que quien llama pueda reintentarla
+     */
+    public boolean deleteFile(String blobUrl) throws IOException {
         if (!azureStorageEnabled) {
             return false;
         }
@@ -119,19 +184,18 @@ public class AzureBlobStorageService {
             String blobName = extractBlobNameFromUrl(blobUrl);
             
             BlobClient blobClient = containerClient.getBlobClient(blobName);
-            
-            if (blobClient.exists()) {
-                blobClient.delete();
+
+            boolean deleted = blobClient.deleteIfExists();
+            if (deleted) {
                 log.info("✅ Archivo eliminado exitosamente: {}", blobName);
-                return true;
             } else {
                 log.warn("⚠️ El archivo no existe: {}", blobName);
-                return false;
             }
+            return deleted;
 
         } catch (Exception e) {
             log.error("❌ Error al eliminar archivo de Azure Blob Storage: {}", e.getMessage(), e);
-            return false;
+            throw new IOException("Error al eliminar archivo de Azure Storage", e);
         }
     }
     public boolean fileExists(String blobUrl) {
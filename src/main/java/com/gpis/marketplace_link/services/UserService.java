@@ -11,12 +11,15 @@ import com.gpis.marketplace_link.exceptions.business.users.AccountInactiveExcept
 import com.gpis.marketplace_link.exceptions.business.users.AccountPendingVerificationException;
 import com.gpis.marketplace_link.valueObjects.PasswordResetUrl;
 import com.gpis.marketplace_link.repositories.UserRepository;
+import com.gpis.marketplace_link.security.events.UserAccountChangedEvent;
+import com.gpis.marketplace_link.security.service.AuthTokenService;
 import com.gpis.marketplace_link.services.PasswordResetService;
 import com.gpis.marketplace_link.services.user.EmailVerificationService;
 import com.gpis.marketplace_link.specifications.UserSpecifications;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -43,6 +46,8 @@ public class UserService {
     private final EmailVerificationService emailVerificationService;
     private final PasswordResetService passwordResetService;
     private final NotificationService notificationService;
+    private final AuthTokenService authTokenService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public boolean existsUserByEmail(String email) { return userRepo.existsByEmail(email); }
 
@@ -137,8 +142,12 @@ public class UserService {
         if (draft.getAccountStatus() != null) existing.setAccountStatus(draft.getAccountStatus());
         if (draft.getLocation() != null) existing.setLocation(draft.getLocation());
         if (draft.getRoles() != null && !draft.getRoles().isEmpty()) existing.setRoles(draft.getRoles());
-        
-        return userRepo.save(existing);
+
+        User saved = userRepo.save(existing);
+        if (draft.getAccountStatus() != null) syncTokenRevocation(saved);
+        if (draft.getAccountStatus() != null || (draft.getRoles() != null && !draft.getRoles().isEmpty()))
+            eventPublisher.publishEvent(new UserAccountChangedEvent(id));
+        return saved;
     }
 
     @Transactional
@@ -172,12 +181,17 @@ public class UserService {
                 new ResponseStatusException(HttpStatus.NOT_FOUND, "Usuario no encontrado"));
         if (userRepo.deactivateById(userId) == 0)
             throw new ResponseStatusException(HttpStatus.CONFLICT, "No se pudo realizar el borrado lógico del usuario");
+        authTokenService.revokeUser(userId);
+        eventPublisher.publishEvent(new UserAccountChangedEvent(userId));
     }
 
     @Transactional
     public void activateUser(Long userId) {
         if (userRepo.activateById(userId) == 0)
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Usuario no encontrado con ID: " + userId);
+        // activateById limpia el contexto de persistencia: se relee el estado ya actualizado
+        userRepo.findById(userId).ifPresent(this::syncTokenRevocation);
+        eventPublisher.publishEvent(new UserAccountChangedEvent(userId));
     }
 
     @Transactional
@@ -187,7 +201,9 @@ public class UserService {
         if (user.getAccountStatus() != AccountStatus.BLOCKED) {
             user.setAccountStatus(AccountStatus.BLOCKED);
             userRepo.save(user);
+            eventPublisher.publishEvent(new UserAccountChangedEvent(userId));
         }
+        authTokenService.revokeUser(userId);
     }
 
     @Transactional
@@ -197,6 +213,25 @@ public class UserService {
         if (user.getAccountStatus() != AccountStatus.ACTIVE) {
             user.setAccountStatus(AccountStatus.ACTIVE);
             userRepo.save(user);
+            eventPublisher.publishEvent(new UserAccountChangedEvent(userId));
+        }
+        // Una cuenta eliminada lógicamente sigue revocada aunque se desbloquee
+        syncTokenRevocation(user);
+    }
+
+    /**
+     * Refleja el estado de la cuenta en el índice de revocación, con el mismo criterio que
+     * {@code UserRepository.findRevokedUserIds}: una cuenta eliminada, bloqueada o inactiva deja de
+     * poder usar sus tokens en cuanto se confirma la transacción.
+     */
+    private void syncTokenRevocation(User user) {
+        AccountStatus status = user.getAccountStatus();
+        boolean revoked = Boolean.TRUE.equals(user.getDeleted())
+                || status == AccountStatus.BLOCKED || status == AccountStatus.INACTIVE;
+        if (revoked) {
+            authTokenService.revokeUser(user.getId());
+        } else {
+            authTokenService.restoreUser(user.getId());
         }
     }
 }
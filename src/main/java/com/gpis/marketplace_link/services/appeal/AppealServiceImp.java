@@ -2,6 +2,7 @@ package com.gpis.marketplace_link.services.appeal;
 
 import com.gpis.marketplace_link.dto.Messages;
 import com.gpis.marketplace_link.dto.appeal.*;
+import com.gpis.marketplace_link.dto.appeal.projections.ModeratorWorkloadProjection;
 import com.gpis.marketplace_link.dto.incidence.ModeratorInfo;
 import com.gpis.marketplace_link.dto.incidence.SimplePublicationResponse;
 import com.gpis.marketplace_link.dto.incidence.SimpleReportResponse;
@@ -31,9 +32,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.Map;
-import java.util.Objects;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -47,30 +48,84 @@ public class AppealServiceImp implements AppealService {
     private final IncidenceRepository incidenceRepository;
     private final NotificationService notificationService;
 
+    // mismo orden que findLeastBusyModeratorOrAdminExcludingId: menos tareas, luego incidencia más antigua
+    private static final Comparator<ModeratorLoad> MODERATOR_LOAD_ORDER = Comparator
+            .comparingLong(ModeratorLoad::workload)
+            .thenComparing(ModeratorLoad::oldestIncidenceAt)
+            .thenComparing(ModeratorLoad::moderatorId);
+
     @Transactional
     @Override
     public void autoAssignModeratorsToPendingAppeals() {
         // primero buscar todas las pendientes
         List<Appeal> pendingAppeals = appealRepository.findAllPendingWithModerator();
+        if (pendingAppeals.isEmpty()) {
+            return;
+        }
+
+        // la carga de cada moderador se calcula una sola vez y se mantiene en un min-heap
+        PriorityQueue<ModeratorLoad> moderatorsByLoad = new PriorityQueue<>(MODERATOR_LOAD_ORDER);
+        for (ModeratorWorkloadProjection workload : userRepository.findModeratorAndAdminWorkloads()) {
+            moderatorsByLoad.add(new ModeratorLoad(
+                    workload.getModeratorId(), workload.getWorkload(), workload.getOldestIncidenceAt()));
+        }
 
+        Map<Appeal, Long> assignments = new LinkedHashMap<>();
         for (Appeal appeal : pendingAppeals) {
             // para cada apeal pendiente, asignar un nuevo moderador (sin considerar el de la incidencia de ese apppeal)
             Long moderatorIncidence = appeal.getIncidence().getModerator().getId();
-            Long newModeratorId = userRepository.findLeastBusyModeratorOrAdminExcludingId(moderatorIncidence);
-            log.info("Asignando nuevo moderador con ID {} al appeal con ID {}", newModeratorId, appeal.getId());
+            ModeratorLoad leastBusy = pollLeastBusyExcluding(moderatorsByLoad, moderatorIncidence);
+            if (leastBusy == null) {
+                continue;
+            }
+
+            log.info("Asignando nuevo moderador con ID {} al appeal con ID {}", leastBusy.moderatorId(), appeal.getId());
+            assignments.put(appeal, leastBusy.moderatorId());
+            moderatorsByLoad.add(leastBusy.withOneMoreTask());
+        }
 
-            if (newModeratorId != null) {
-                User newModUser = userRepository
-                        .findById(newModeratorId)
-                        .orElseThrow(() -> new ModeratorNotFoundException(Messages.MODERATOR_NOT_FOUND_WITH_ID + newModeratorId));
+        if (assignments.isEmpty()) {
+            return;
+        }
 
-                appeal.setNewModerator(newModUser);
-                appeal.setStatus(AppealStatus.ASSIGNED);
-                appealRepository.save(appeal);
+        Map<Long, User> moderators = userRepository.findAllById(new HashSet<>(assignments.values())).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
 
-                this.sendModeratorAssignedEmailToSeller(appeal);
-                this.sendNewAppealAssignedToModerator(appeal);
+        assignments.forEach((appeal, newModeratorId) -> {
+            User newModUser = moderators.get(newModeratorId);
+            if (newModUser == null) {
+                throw new ModeratorNotFoundException(Messages.MODERATOR_NOT_FOUND_WITH_ID + newModeratorId);
             }
+            appeal.setNewModerator(newModUser);
+            appeal.setStatus(AppealStatus.ASSIGNED);
+        });
+
+        // todas las apelaciones se actualizan en un único lote (hibernate.jdbc.batch_size)
+        appealRepository.saveAll(assignments.keySet());
+
+        for (Appeal appeal : assignments.keySet()) {
+            this.sendModeratorAssignedEmailToSeller(appeal);
+            this.sendNewAppealAssignedToModerator(appeal);
+        }
+    }
+
+    /**
+     * Extrae del heap al moderador con menos carga que no sea {@code excludedId}.
+     * Como cada moderador aparece una sola vez, basta con revisar los dos primeros.
+     */
+    private ModeratorLoad pollLeastBusyExcluding(PriorityQueue<ModeratorLoad> moderatorsByLoad, Long excludedId) {
+        ModeratorLoad first = moderatorsByLoad.poll();
+        if (first == null || !first.moderatorId().equals(excludedId)) {
+            return first;
+        }
+        ModeratorLoad second = moderatorsByLoad.poll();
+        moderatorsByLoad.add(first);
+        return second;
+    }
+
+    private record ModeratorLoad(Long moderatorId, long workload, LocalDateTime oldestIncidenceAt) {
+        ModeratorLoad withOneMoreTask() {
+            return new ModeratorLoad(moderatorId, workload + 1, oldestIncidenceAt);
         }
     }
 
@@ -20,9 +20,11 @@ import com.gpis.marketplace_link.exceptions.business.users.UserNotFoundException
 import com.gpis.marketplace_link.repositories.*;
 import com.gpis.marketplace_link.security.service.SecurityService;
 import com.gpis.marketplace_link.services.NotificationService;
+import com.gpis.marketplace_link.services.publications.events.PublicationReportedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -46,6 +48,7 @@ public class IncidenceServiceImp implements IncidenceService {
     private final UserRepository userRepository;
     private final ReportRepository reportRepository;
     private final AppealRepository appealRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     private static final int REPORT_THRESHOLD = 3;
     private static final String SYSTEM_USERNAME = "system_user";
@@ -109,11 +112,13 @@ public class IncidenceServiceImp implements IncidenceService {
 
         // Crear o actualizar incidencia
         Optional<Incidence> inc = incidenceRepository.findByPublicationIdAndStatusIn(publicationId, status);
-        if (inc.isEmpty()) {
-            return handleNewIncidence(pub, reporter, req);
-        } else {
-            return handleExistingIncidence(inc.get(), pub, reporter, req);
-        }
+        ReportResponse response = inc.isEmpty()
+                ? handleNewIncidence(pub, reporter, req)
+                : handleExistingIncidence(inc.get(), pub, reporter, req);
+
+        // El listado cachea la fecha del último reporte del usuario; se invalida al confirmar el reporte
+        eventPublisher.publishEvent(new PublicationReportedEvent(reporterId));
+        return response;
     }
 
     private ReportResponse handleNewIncidence(Publication pub, User reporter, RequestUserReport req) {
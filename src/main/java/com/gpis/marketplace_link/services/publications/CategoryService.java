@@ -1,22 +1,103 @@
 package com.gpis.marketplace_link.services.publications;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gpis.marketplace_link.dto.publication.response.CategoryResponse;
 import com.gpis.marketplace_link.entities.Category;
 import com.gpis.marketplace_link.repositories.CategoryRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.List;
 
+/**
+ * Las categorías cambian muy rara vez y se consultan en cada carga del catálogo, así que la lista
+ * se guarda ya serializada en memoria junto con su ETag. Hoy las categorías solo cambian
+ * directamente en la base de datos, así que la lista se recarga al cumplirse
+ * {@code CATEGORY_CACHE_TTL_SECONDS}; quien agregue escrituras debe llamar a {@link #invalidateCache()}.
+ */
 @Service
 public class CategoryService {
 
     private final CategoryRepository repository;
+    private final ObjectMapper objectMapper;
 
-    public CategoryService(CategoryRepository repository) {
+    @Value("${CATEGORY_CACHE_TTL_SECONDS:300}")
+    private long cacheTtlSeconds;
+
+    private volatile CachedCategories cached;
+
+    public CategoryService(CategoryRepository repository, ObjectMapper objectMapper) {
         this.repository = repository;
+        this.objectMapper = objectMapper;
     }
 
     public List<Category> getAll(){
 
         return repository.findAll();
     }
+
+    /**
+     * Devuelve la lista de categorías serializada en JSON y su ETag, leyendo la base de datos
+     * solo cuando la caché está vacía o vencida.
+     */
+    public CachedCategories getAllCached() {
+        CachedCategories current = cached;
+        if (current != null && !current.isExpired(cacheTtlSeconds)) {
+            return current;
+        }
+        synchronized (this) {
+            current = cached;
+            if (current == null || current.isExpired(cacheTtlSeconds)) {
+                current = load();
+                cached = current;
+            }
+            return current;
+        }
+    }
+
+    /** Debe llamarse al crear, modificar o eliminar categorías. */
+    public void invalidateCache() {
+        cached = null;
+    }
+
+    public long getCacheTtlSeconds() {
+        return cacheTtlSeconds;
+    }
+
+    private CachedCategories load() {
+        List<CategoryResponse> categories = repository.findAll().stream()
+                .map(category -> new CategoryResponse(category.getId(), category.getName()))
+                .toList();
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(categories);
+            return new CachedCategories(body, etagOf(body), System.currentTimeMillis());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar la lista de categorías", e);
+        }
+    }
+
+    private static String etagOf(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no está disponible", e);
+        }
+    }
+
+    /**
+     * @param body     lista de categorías ya serializada en JSON (UTF-8)
+     * @param etag     ETag fuerte derivado del contenido
+     * @param loadedAt momento de carga, en milisegundos
+     */
+    public record CachedCategories(byte[] body, String etag, long loadedAt) {
+
+        boolean isExpired(long ttlSeconds) {
+            return System.currentTimeMillis() - loadedAt >= ttlSeconds * 1000;
+        }
+    }
 }
@@ -1,95 +1,175 @@
 package com.gpis.marketplace_link.services.publications;
 
 import com.gpis.marketplace_link.exceptions.business.publications.DangerousDictionaryLoadException;
+import com.gpis.marketplace_link.repositories.DangerousWordRepository;
+import com.gpis.marketplace_link.services.publications.valueObjects.DangerousDictionarySnapshot;
 import com.gpis.marketplace_link.services.publications.valueObjects.DangerousWordMatch;
 import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.util.ArrayList;
-import java.util.Collections;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Detecta palabras peligrosas en el contenido de las publicaciones.
+ *
+ * El diccionario puede provenir del classpath (por defecto), de un archivo externo o de la
+ * tabla {@code dangerous_words}, según {@code DANGEROUS_WORDS_SOURCE}. Una tarea periódica lo
+ * vuelve a leer y, si su contenido cambió, construye un nuevo autómata en segundo plano y lo
+ * publica con un intercambio atómico: la detección nunca se bloquea ni ve un diccionario a medias.
+ */
+@Slf4j
 @Service
 public class DangerousContentDetectedService {
 
+    private static final String CLASSPATH_DICTIONARY = "dangerous-words-dictionary.txt";
 
-    private List<Pattern> pattern;
+    private final DangerousWordRepository dangerousWordRepository;
+    private final String source;
+    private final String dictionaryPath;
 
-    @PostConstruct
-    public void loadDictionary() {
+    private final AtomicReference<DangerousDictionarySnapshot> current = new AtomicReference<>(
+            new DangerousDictionarySnapshot(DangerousWordsAutomaton.empty(), "none", "none", 0, Instant.EPOCH));
 
-        try (InputStream in = getClass().getClassLoader().getResourceAsStream("dangerous-words-dictionary.txt")) {
+    private volatile long lastFileModified = -1;
 
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(in))) {
-                pattern = reader.lines()
-                        .map(String::trim)
-                        .filter(line -> !line.isEmpty())
-                        .map(word -> Pattern.compile("\\b" + Pattern.quote(word), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CHARACTER_CLASS))
-                        .toList();
-            }
+    public DangerousContentDetectedService(DangerousWordRepository dangerousWordRepository,
+            @Value("${DANGEROUS_WORDS_SOURCE:classpath}") String source,
+            @Value("${DANGEROUS_WORDS_FILE:}") String dictionaryPath) {
+        this.dangerousWordRepository = dangerousWordRepository;
+        this.source = source.trim().toLowerCase();
+        this.dictionaryPath = dictionaryPath;
+    }
+
+    @PostConstruct
+    public void loadDictionary() {
+        try {
+            publish(readWords());
         } catch (IOException e) {
             throw new DangerousDictionaryLoadException("Error de E/S al cargar el diccionario de palabras peligrosas", e);
         } catch (Exception e) {
             throw new DangerousDictionaryLoadException("Error al cargar el diccionario de palabras peligrosas", e);
         }
-
     }
-    public boolean containsDangerousContent(String text) {
-        if (text == null || text.isEmpty()) {
-            return false;
-        }
 
-        if (pattern == null || pattern.isEmpty()) {
-            return false;
+    /**
+     * Revisa periódicamente el origen del diccionario y recarga solo si su contenido cambió.
+     * Ante un error se conserva la versión vigente.
+     */
+    @Scheduled(fixedDelayString = "${DANGEROUS_WORDS_RELOAD_MS:60000}",
+            initialDelayString = "${DANGEROUS_WORDS_RELOAD_MS:60000}")
+    public void reloadIfChanged() {
+        if ("classpath".equals(source)) {
+            return;
         }
-        for (Pattern p : pattern) {
-            if (p.matcher(text).find()) {
-                return true;
+        try {
+            if ("file".equals(source) && Files.getLastModifiedTime(filePath()).toMillis() == lastFileModified) {
+                return;
+            }
+            List<String> words = readWords();
+            if (!versionOf(words).equals(current.get().version())) {
+                publish(words);
             }
+        } catch (Exception e) {
+            log.error("No se pudo recargar el diccionario de palabras peligrosas, se mantiene la versión {}",
+                    current.get().version(), e);
         }
-        return false;
     }
 
+    public boolean containsDangerousContent(String text) {
+        return current.get().automaton().containsAny(text);
+    }
 
     public List<DangerousWordMatch> findDangerousWords(String text) {
-        if (text == null || text.isBlank() || pattern == null || pattern.isEmpty())
-            return Collections.emptyList();
-
-        List<DangerousWordMatch> matches = new ArrayList<>();
-        for (Pattern p : pattern) {
-            Matcher matcher = p.matcher(text);
-            while (matcher.find()) {
-
-                String fullWord = extractFullWord(text, matcher.start());
+        return current.get().automaton().findAll(text);
+    }
 
-                String cleanPattern = p.pattern().replace("\\Q", "").replace("\\E", "");
-                matches.add(new DangerousWordMatch(fullWord, cleanPattern));
-            }
-        }
-        return matches;
+    /**
+     * @return la versión del diccionario que se está usando actualmente
+     */
+    public DangerousDictionarySnapshot getActiveDictionary() {
+        return current.get();
     }
 
+    /**
+     * Publica el nuevo autómata. Un diccionario sin palabras no reemplaza al vigente: una tabla vacía
+     * o una lectura sin filas desactivaría la detección sin que nadie lo note.
+     */
+    private void publish(List<String> words) throws NoSuchAlgorithmException {
+        DangerousWordsAutomaton automaton = DangerousWordsAutomaton.build(words);
+        if (automaton.size() == 0) {
+            log.warn("El diccionario de palabras peligrosas (origen: {}) no tiene palabras; se mantiene la versión {} con {} palabras",
+                    source, current.get().version(), current.get().words());
+            return;
+        }
+        DangerousDictionarySnapshot snapshot = new DangerousDictionarySnapshot(
+                automaton, versionOf(words), source, automaton.size(), Instant.now());
 
-    private String extractFullWord(String text, int matchStart) {
-        int start = matchStart;
-        int end = matchStart;
+        current.set(snapshot);
+        log.info("Diccionario de palabras peligrosas cargado. Versión: {}, origen: {}, palabras: {}",
+                snapshot.version(), snapshot.source(), snapshot.words());
+    }
 
+    private List<String> readWords() throws IOException {
+        return switch (source) {
+            case "file" -> {
+                Path path = filePath();
+                long modified = Files.getLastModifiedTime(path).toMillis();
+                List<String> words = Files.readAllLines(path, StandardCharsets.UTF_8);
+                lastFileModified = modified;
+                yield words;
+            }
+            case "database" -> dangerousWordRepository.findAllWords();
+            default -> readClasspathWords();
+        };
+    }
 
-        while (start > 0 && Character.isLetterOrDigit(text.charAt(start - 1))) {
-            start--;
+    private List<String> readClasspathWords() throws IOException {
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream(CLASSPATH_DICTIONARY)) {
+            if (in == null) {
+                throw new DangerousDictionaryLoadException("No se encontró el diccionario " + CLASSPATH_DICTIONARY);
+            }
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+                return reader.lines().toList();
+            }
         }
+    }
 
-
-        while (end < text.length() && Character.isLetterOrDigit(text.charAt(end))) {
-            end++;
+    private Path filePath() {
+        if (dictionaryPath == null || dictionaryPath.isBlank()) {
+            throw new DangerousDictionaryLoadException("DANGEROUS_WORDS_SOURCE=file requiere DANGEROUS_WORDS_FILE");
         }
+        return Paths.get(dictionaryPath);
+    }
 
-        return text.substring(start, end);
+    /**
+     * La versión es un hash del contenido normalizado, así todos los nodos con el mismo
+     * diccionario reportan la misma versión.
+     */
+    private static String versionOf(List<String> words) throws NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        for (String word : words) {
+            String trimmed = word == null ? "" : word.trim();
+            if (!trimmed.isEmpty()) {
+                digest.update(trimmed.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest()).substring(0, 12);
     }
 }
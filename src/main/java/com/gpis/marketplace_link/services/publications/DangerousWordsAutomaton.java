@@ -0,0 +1,218 @@
+package com.gpis.marketplace_link.services.publications;
+
+import com.gpis.marketplace_link.services.publications.valueObjects.DangerousWordMatch;
+
+import java.text.Normalizer;
+import java.util.*;
+
+/**
+ * Autómata Aho-Corasick construido a partir del diccionario de palabras peligrosas.
+ *
+ * Todas las palabras se buscan en una sola pasada lineal sobre el texto, de modo que el costo
+ * depende de la longitud del texto y no del tamaño del diccionario. Tanto el diccionario como el
+ * texto se comparan en minúsculas y sin tildes (NFD sin marcas combinantes); la "ñ" se conserva
+ * porque en español es una letra distinta de la "n".
+ *
+ * Conserva la semántica de los patrones anteriores ({@code \b + palabra}): la coincidencia debe
+ * empezar al inicio de una palabra, pero puede continuar dentro de ella (prefijo), por ejemplo
+ * "rifl" coincide con "rifles".
+ *
+ * Las instancias son inmutables y seguras para uso concurrente.
+ */
+public final class DangerousWordsAutomaton {
+
+    private static final DangerousWordsAutomaton EMPTY = new DangerousWordsAutomaton(new Node(), List.of(), new int[0]);
+
+    private final Node root;
+    private final List<String> words;
+    private final int[] foldedLengths;
+
+    private DangerousWordsAutomaton(Node root, List<String> words, int[] foldedLengths) {
+        this.root = root;
+        this.words = words;
+        this.foldedLengths = foldedLengths;
+    }
+
+    public static DangerousWordsAutomaton empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Construye el autómata. Las entradas vacías o duplicadas (tras normalizar) se ignoran.
+     *
+     * @param dictionary palabras tal como aparecen en el diccionario
+     */
+    public static DangerousWordsAutomaton build(Collection<String> dictionary) {
+        Node root = new Node();
+        List<String> words = new ArrayList<>();
+        List<Integer> lengths = new ArrayList<>();
+
+        for (String raw : dictionary) {
+            if (raw == null) {
+                continue;
+            }
+            String word = raw.trim();
+            char[] folded = fold(word).chars;
+            if (folded.length == 0) {
+                continue;
+            }
+
+            Node node = root;
+            for (char c : folded) {
+                node = node.next.computeIfAbsent(c, k -> new Node());
+            }
+            if (node.output < 0) {
+                node.output = words.size();
+                words.add(word);
+                lengths.add(folded.length);
+            }
+        }
+
+        linkFailures(root);
+
+        int[] foldedLengths = lengths.stream().mapToInt(Integer::intValue).toArray();
+        return new DangerousWordsAutomaton(root, List.copyOf(words), foldedLengths);
+    }
+
+    public int size() {
+        return words.size();
+    }
+
+    public boolean containsAny(String text) {
+        if (text == null || text.isEmpty() || words.isEmpty()) {
+            return false;
+        }
+        return !scan(text, true).isEmpty();
+    }
+
+    public List<DangerousWordMatch> findAll(String text) {
+        if (text == null || text.isBlank() || words.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return scan(text, false);
+    }
+
+    private List<DangerousWordMatch> scan(String text, boolean firstOnly) {
+        FoldedText folded = fold(text);
+        char[] chars = folded.chars;
+        List<DangerousWordMatch> matches = new ArrayList<>();
+
+        Node state = root;
+        for (int i = 0; i < chars.length; i++) {
+            char c = chars[i];
+            while (state != root && !state.next.containsKey(c)) {
+                state = state.fail;
+            }
+            state = state.next.getOrDefault(c, root);
+
+            Node out = state.output >= 0 ? state : state.dictionaryLink;
+            while (out != null) {
+                int start = i - foldedLengths[out.output] + 1;
+                if (start == 0 || !isWordChar(chars[start - 1])) {
+                    String fullWord = extractFullWord(text, folded.sourceIndex[start]);
+                    matches.add(new DangerousWordMatch(fullWord, words.get(out.output)));
+                    if (firstOnly) {
+                        return matches;
+                    }
+                }
+                out = out.dictionaryLink;
+            }
+        }
+        return matches;
+    }
+
+    private static void linkFailures(Node root) {
+        Deque<Node> queue = new ArrayDeque<>();
+        for (Node child : root.next.values()) {
+            child.fail = root;
+            queue.add(child);
+        }
+
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            for (Map.Entry<Character, Node> entry : node.next.entrySet()) {
+                char c = entry.getKey();
+                Node child = entry.getValue();
+
+                Node fail = node.fail;
+                while (fail != root && !fail.next.containsKey(c)) {
+                    fail = fail.fail;
+                }
+                Node target = fail.next.get(c);
+                child.fail = target != null && target != child ? target : root;
+                child.dictionaryLink = child.fail.output >= 0 ? child.fail : child.fail.dictionaryLink;
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * Pasa el texto a minúsculas y elimina tildes (salvo la "ñ"), guardando para cada carácter resultante
+     * su posición en el texto original.
+     */
+    private static FoldedText fold(String text) {
+        int length = text.length();
+        char[] chars = new char[length];
+        int[] sourceIndex = new int[length];
+        int size = 0;
+
+        for (int i = 0; i < length; ) {
+            int codePoint = text.codePointAt(i);
+            int lower = Character.toLowerCase(codePoint);
+
+            if (lower < 0x80 || lower == 'ñ') {
+                if (size == chars.length) {
+                    chars = Arrays.copyOf(chars, size * 2 + 1);
+                    sourceIndex = Arrays.copyOf(sourceIndex, size * 2 + 1);
+                }
+                chars[size] = (char) lower;
+                sourceIndex[size++] = i;
+            } else {
+                String decomposed = Normalizer.normalize(new String(Character.toChars(lower)), Normalizer.Form.NFD);
+                for (int k = 0; k < decomposed.length(); k++) {
+                    char c = decomposed.charAt(k);
+                    if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                        continue;
+                    }
+                    if (size == chars.length) {
+                        chars = Arrays.copyOf(chars, size * 2 + 1);
+                        sourceIndex = Arrays.copyOf(sourceIndex, size * 2 + 1);
+                    }
+                    chars[size] = c;
+                    sourceIndex[size++] = i;
+                }
+            }
+            i += Character.charCount(codePoint);
+        }
+
+        return new FoldedText(Arrays.copyOf(chars, size), Arrays.copyOf(sourceIndex, size));
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    private static String extractFullWord(String text, int matchStart) {
+        int start = matchStart;
+        int end = matchStart;
+
+        while (start > 0 && Character.isLetterOrDigit(text.charAt(start - 1))) {
+            start--;
+        }
+
+        while (end < text.length() && Character.isLetterOrDigit(text.charAt(end))) {
+            end++;
+        }
+
+        return text.substring(start, end);
+    }
+
+    private record FoldedText(char[] chars, int[] sourceIndex) {}
+
+    private static final class Node {
+        private final Map<Character, Node> next = new HashMap<>();
+        private Node fail;
+        private Node dictionaryLink;
+        private int output = -1;
+    }
+}
@@ -106,4 +106,14 @@ public class FavoritePublicationService {
     public void restoreFavoritesByPublicationId(Long publicationId) {
         favoritePublicationRepository.restoreAllByPublicationId(publicationId);
     }
+
+    @Transactional
+    public int removeFavoritesByVendorId(Long vendorId) {
+        return favoritePublicationRepository.softDeleteAllByVendorId(vendorId);
+    }
+
+    @Transactional
+    public int restoreFavoritesOfBlockedByVendorId(Long vendorId) {
+        return favoritePublicationRepository.restoreAllOfBlockedByVendorId(vendorId);
+    }
 }
@@ -0,0 +1,111 @@
+package com.gpis.marketplace_link.services.publications;
+
+import com.gpis.marketplace_link.entities.PendingFileDeletion;
+import com.gpis.marketplace_link.repositories.PendingFileDeletionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Cola durable (outbox) de archivos por eliminar.
+ *
+ * Las operaciones de negocio solo registran las referencias en {@code file_deletion_outbox}
+ * dentro de su propia transacción, de modo que la latencia de eliminar una publicación no
+ * depende de cuántas imágenes tenga. Un proceso en segundo plano vacía la cola por lotes y
+ * reintenta con espera creciente las eliminaciones que fallan.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FileDeletionQueueService {
+
+    private static final int BATCH_SIZE = 100;
+    private static final long LEASE_MINUTES = 5;
+    private static final long MAX_BACKOFF_MINUTES = 60;
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final PendingFileDeletionRepository pendingFileDeletionRepository;
+    private final FileStorageService fileStorageService;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Registra archivos para eliminarlos después. Se une a la transacción en curso: si esta
+     * se revierte, los archivos no se eliminan.
+     */
+    public void enqueue(Collection<String> references) {
+        List<PendingFileDeletion> pending = references.stream()
+                .filter(Objects::nonNull)
+                .filter(reference -> !reference.isBlank())
+                .map(PendingFileDeletion::new)
+                .toList();
+
+        if (!pending.isEmpty()) {
+            pendingFileDeletionRepository.saveAll(pending);
+        }
+    }
+
+    /**
+     * Procesa un lote de la cola.
+     *
+     * @return cantidad de eliminaciones completadas
+     */
+    public int drain() {
+        LocalDateTime now = LocalDateTime.now();
+        List<PendingFileDeletion> batch = pendingFileDeletionRepository.claimBatch(
+                now, now.plusMinutes(LEASE_MINUTES), BATCH_SIZE);
+
+        List<Long> completed = new ArrayList<>();
+        for (PendingFileDeletion pending : batch) {
+            try {
+                if (!pending.isReleased() && !release(pending)) {
+                    // Otra imagen sigue usando el archivo: no hay nada que borrar
+                    completed.add(pending.getId());
+                    continue;
+                }
+                // En cada intento se vuelve a comprobar, con la fila bloqueada, que nadie reutilizó el archivo
+                fileStorageService.deleteIfUnreferenced(pending.getReference());
+                completed.add(pending.getId());
+            } catch (Exception ex) {
+                LocalDateTime nextAttempt = LocalDateTime.now().plusMinutes(backoffMinutes(pending.getAttempts()));
+                pendingFileDeletionRepository.reschedule(pending.getId(), nextAttempt, truncate(ex.getMessage()));
+                log.error("❌ No se pudo eliminar {} (intento {}), se reintentará a las {}",
+                        pending.getReference(), pending.getAttempts() + 1, nextAttempt, ex);
+            }
+        }
+
+        if (!completed.isEmpty()) {
+            pendingFileDeletionRepository.deleteAllByIdInBatch(completed);
+        }
+        return completed.size();
+    }
+
+    /**
+     * Resta la referencia y marca la fila en la misma transacción, para que un reintento no
+     * vuelva a restarla.
+     */
+    private boolean release(PendingFileDeletion pending) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            boolean unused = fileStorageService.releaseReference(pending.getReference());
+            pendingFileDeletionRepository.markReleased(pending.getId());
+            return unused;
+        }));
+    }
+
+    private static long backoffMinutes(int attempts) {
+        return Math.min(MAX_BACKOFF_MINUTES, 1L << Math.min(attempts, 6));
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -1,24 +1,47 @@
 package com.gpis.marketplace_link.services.publications;
 
 import com.gpis.marketplace_link.exceptions.business.publications.UploadFolderException;
+import com.gpis.marketplace_link.repositories.StoredFileRepository;
 import com.gpis.marketplace_link.services.AzureBlobStorageService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.UUID;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.regex.Pattern;
 
 @Slf4j
 @Service
 public class FileStorageService {
 
     private final Path fileStorageLocation;
+    /** Subidas en curso; dentro de uploads para que el renombrado final sea atómico, pero nunca se sirve. */
+    private final Path tempLocation;
+    private final Executor imageUploadExecutor;
+    private final StoredFileRepository storedFileRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private static final Pattern CONTENT_HASH_NAME = Pattern.compile("[0-9a-f]{64}");
 
     @Value("${azure.storage.enabled:false}")
     private boolean azureStorageEnabled;
@@ -26,10 +49,15 @@ public class FileStorageService {
     @Autowired(required = false)
     private AzureBlobStorageService azureBlobStorageService;
 
-    public FileStorageService() {
+    public FileStorageService(@Qualifier("imageUploadExecutor") Executor imageUploadExecutor,
+            StoredFileRepository storedFileRepository, TransactionTemplate transactionTemplate) {
+        this.imageUploadExecutor = imageUploadExecutor;
+        this.storedFileRepository = storedFileRepository;
+        this.transactionTemplate = transactionTemplate;
         this.fileStorageLocation = Paths.get("uploads").toAbsolutePath().normalize();
+        this.tempLocation = this.fileStorageLocation.resolve(".tmp");
         try {
-            Files.createDirectories(this.fileStorageLocation);
+            Files.createDirectories(this.tempLocation);
             log.info("📁 Directorio de uploads local creado: {}", this.fileStorageLocation);
         } catch (IOException ex) {
             throw new UploadFolderException("Error al crear el directorio de subida de archivos", ex);
@@ -40,51 +68,180 @@ public class FileStorageService {
      * Almacena un archivo usando Azure Blob Storage (si está habilitado) o sistema
      * de archivos local
      * Mejoras del fix/upload-images para manejo local más robusto
+     *
+     * El archivo se nombra con el hash SHA-256 de su contenido: si ya existe uno con los mismos
+     * bytes no se vuelve a subir, solo se suma una referencia y se devuelve la existente.
      * 
      * @param file archivo a almacenar
      * @return URL completa si usa Azure, o nombre del archivo si usa almacenamiento
      *         local
      */
     public String storeFile(MultipartFile file) {
+        String extension = extensionOf(file.getOriginalFilename());
+
         // Si Azure Storage está habilitado, usar Azure Blob Storage
         if (azureStorageEnabled && azureBlobStorageService != null) {
             try {
-                String blobUrl = azureBlobStorageService.uploadFile(file, "products");
+                // Aquí se lee el archivo dos veces: una para el hash y otra para subirlo. El nombre del
+                // blob es el hash y un duplicado no debe subirse, así que el hash se necesita antes de
+                // empezar. Calcularlo durante la subida obligaría a subir siempre (también duplicados)
+                // a un blob temporal y luego copiarlo y borrarlo en Azure. La primera lectura es del
+                // temporal en disco local donde Tomcat guarda la parte multipart, y es barata frente
+                // a la subida por red.
+                String contentHash = hashOf(file);
+                Optional<String> existing = storedFileRepository.incrementByContentHash(contentHash);
+                if (existing.isPresent()) {
+                    log.info("♻️ Archivo duplicado, se reutiliza: {}", existing.get());
+                    return existing.get();
+                }
+
+                String blobUrl = azureBlobStorageService.uploadFile(file, "products", contentHash + extension);
                 log.info("✅ Archivo subido a Azure Blob Storage: {}", blobUrl);
-                return blobUrl; // Retornar URL completa
+                return storedFileRepository.insertOrIncrement(contentHash, blobUrl); // Retornar URL completa
             } catch (IOException ex) {
                 log.error("❌ Error al subir archivo a Azure, usando almacenamiento local como fallback", ex);
                 // Fallback a almacenamiento local si falla Azure
-                return storeFileLocally(file);
+                return storeFileLocally(file, extension);
             }
         }
 
         // Usar almacenamiento local
-        return storeFileLocally(file);
+        return storeFileLocally(file, extension);
+    }
+
+    /**
+     * Almacena varios archivos en paralelo y espera a que terminen todos, de modo que el tiempo
+     * total se acerca al de la subida más lenta y no a la suma de todas.
+     *
+     * Si alguna subida falla, se eliminan los archivos que sí se guardaron y se propaga el error.
+     *
+     * @param files archivos a almacenar; los vacíos se ignoran
+     * @return referencias de los archivos almacenados, en el mismo orden recibido
+     */
+    public List<String> storeFiles(List<MultipartFile> files) {
+        if (files == null || files.isEmpty()) {
+            return List.of();
+        }
+
+        List<CompletableFuture<String>> uploads = files.stream()
+                .filter(file -> !file.isEmpty())
+                .map(file -> CompletableFuture.supplyAsync(() -> storeFile(file), imageUploadExecutor))
+                .toList();
+
+        try {
+            CompletableFuture.allOf(uploads.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException ex) {
+            uploads.stream()
+                    .filter(upload -> !upload.isCompletedExceptionally())
+                    .map(CompletableFuture::join)
+                    .forEach(this::deleteQuietly);
+
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new UploadFolderException("No se pudieron almacenar las imágenes", ex.getCause());
+        }
+
+        return uploads.stream()
+                .map(CompletableFuture::join)
+                .filter(Objects::nonNull)
+                .filter(reference -> !reference.isBlank())
+                .toList();
+    }
+
+    private void deleteQuietly(String fileReference) {
+        try {
+            deleteFile(fileReference);
+        } catch (Exception ex) {
+            log.error("❌ No se pudo eliminar el archivo {} tras una subida fallida", fileReference, ex);
+        }
     }
 
     /**
      * Almacena archivo en el sistema de archivos local
      * Lógica mejorada de fix/upload-images
+     *
+     * El hash se calcula mientras el archivo se copia a un temporal, en una sola pasada; luego
+     * el temporal se descarta (si el contenido ya existía) o se renombra con su hash.
      */
-    private String storeFileLocally(MultipartFile file) {
-        String originalFileName = file.getOriginalFilename();
-        String extension = "";
+    private String storeFileLocally(MultipartFile file, String extension) {
+        Path tempFile = null;
+        try {
+            tempFile = Files.createTempFile(this.tempLocation, "upload-", ".tmp");
 
-        if (originalFileName != null && originalFileName.contains(".")) {
-            extension = originalFileName.substring(originalFileName.lastIndexOf("."));
+            MessageDigest digest = newDigest();
+            // Se copia el stream directo a disco, sin materializar el archivo en memoria
+            try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+                Files.copy(in, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String contentHash = HexFormat.of().formatHex(digest.digest());
+
+            Optional<String> existing = storedFileRepository.incrementByContentHash(contentHash);
+            if (existing.isPresent()) {
+                log.info("♻️ Archivo duplicado, se reutiliza: {}", existing.get());
+                return existing.get();
+            }
+
+            String fileName = contentHash.concat(extension);
+            Files.move(tempFile, this.fileStorageLocation.resolve(fileName), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            log.info("📁 Archivo guardado localmente: {}", fileName);
+            return storedFileRepository.insertOrIncrement(contentHash, fileName); // Solo retornar nombre del archivo
+        } catch (IOException ex) {
+            throw new UploadFolderException("No se pudo almacenar el archivo " + file.getOriginalFilename(), ex);
+        } finally {
+            deleteTempQuietly(tempFile);
         }
+    }
 
-        String fileName = UUID.randomUUID().toString().concat(extension);
+    /**
+     * Almacena contenido generado por la aplicación (por ejemplo, variantes de una imagen)
+     * con el mismo criterio que {@link #storeFile(MultipartFile)}.
+     *
+     * @return URL completa si usa Azure, o nombre del archivo si usa almacenamiento local
+     */
+    public String storeBytes(byte[] content, String extension, String contentType) {
+        String contentHash = HexFormat.of().formatHex(newDigest().digest(content));
+        Optional<String> existing = storedFileRepository.incrementByContentHash(contentHash);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
 
+        String fileName = contentHash.concat(extension);
+        if (azureStorageEnabled && azureBlobStorageService != null) {
+            try {
+                String blobUrl = azureBlobStorageService.uploadBytes(content, "products", fileName, contentType);
+                return storedFileRepository.insertOrIncrement(contentHash, blobUrl);
+            } catch (IOException ex) {
+                log.error("❌ Error al subir archivo a Azure, usando almacenamiento local como fallback", ex);
+            }
+        }
+
+        Path tempFile = null;
         try {
-            Path targetLocation = this.fileStorageLocation.resolve(fileName);
-            Files.copy(file.getInputStream(), targetLocation);
-            log.info("📁 Archivo guardado localmente: {}", fileName);
-            return fileName; // Solo retornar nombre del archivo
+            // Se escribe en el temporal y se renombra, para que nunca se sirva un archivo a medio escribir
+            tempFile = Files.createTempFile(this.tempLocation, "upload-", ".tmp");
+            Files.write(tempFile, content);
+            Files.move(tempFile, this.fileStorageLocation.resolve(fileName), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            return storedFileRepository.insertOrIncrement(contentHash, fileName);
         } catch (IOException ex) {
             throw new UploadFolderException("No se pudo almacenar el archivo " + fileName, ex);
+        } finally {
+            deleteTempQuietly(tempFile);
+        }
+    }
+
+    /**
+     * Abre un archivo almacenado para lectura, ya sea de Azure o local.
+     * Quien lo llama es responsable de cerrar el stream.
+     */
+    public InputStream openFile(String fileReference) throws IOException {
+        if (azureStorageEnabled && (fileReference.startsWith("https://") || fileReference.startsWith("http://"))
+                && azureBlobStorageService != null) {
+            return azureBlobStorageService.openInputStream(fileReference);
         }
+        return Files.newInputStream(getFilePath(fileReference));
     }
 
     /**
@@ -94,6 +251,23 @@ public class FileStorageService {
         return this.fileStorageLocation.resolve(fileName);
     }
 
+    /**
+     * Resuelve un archivo local para servirlo. Solo se sirven archivos que están directamente en el
+     * directorio de uploads: ni rutas fuera de él ni los temporales de subidas en curso.
+     *
+     * @return la ruta del archivo, o null si el nombre no es válido o el archivo no existe
+     */
+    public Path resolveLocalFile(String fileName) {
+        if (fileName == null || fileName.isBlank()) {
+            return null;
+        }
+        Path filePath = this.fileStorageLocation.resolve(fileName).normalize();
+        if (!this.fileStorageLocation.equals(filePath.getParent()) || !Files.isRegularFile(filePath)) {
+            return null;
+        }
+        return filePath;
+    }
+
     /**
      * Verifica si un archivo existe
      * Soporta tanto URLs de Azure como nombres de archivo locales
@@ -123,15 +297,54 @@ public class FileStorageService {
             return;
         }
 
+        if (!releaseReference(fileReference)) {
+            log.info("🔗 Archivo compartido, se conserva: {}", fileReference);
+            return;
+        }
+
+        deleteIfUnreferenced(fileReference);
+    }
+
+    /**
+     * Elimina el archivo solo si sigue sin referencias, con su fila de {@code stored_files} bloqueada:
+     * si entre tanto una subida con el mismo contenido volvió a registrarlo, se conserva. La fila se
+     * borra junto con el archivo; si la eliminación falla, la fila queda en 0 y se puede reintentar.
+     *
+     * @return true si el archivo se eliminó
+     */
+    public boolean deleteIfUnreferenced(String fileReference) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            Optional<Integer> refCount = storedFileRepository.lockRefCountByReference(fileReference);
+            if (refCount.isEmpty()) {
+                // Los nombres por hash sin fila ya se eliminaron (o una subida los está registrando);
+                // solo los archivos anteriores a la deduplicación se borran sin registro
+                if (isContentAddressed(fileReference)) {
+                    return false;
+                }
+                deletePhysically(fileReference);
+                return true;
+            }
+            if (refCount.get() > 0) {
+                log.info("♻️ Archivo reutilizado antes de eliminarse, se conserva: {}", fileReference);
+                return false;
+            }
+            deletePhysically(fileReference);
+            storedFileRepository.deleteUnreferenced(fileReference);
+            return true;
+        }));
+    }
+
+    /**
+     * Elimina el archivo del almacenamiento sin tocar su conteo de referencias.
+     * Es idempotente: si el archivo ya no existe no falla.
+     */
+    private void deletePhysically(String fileReference) {
         try {
             // Si es una URL de Azure Blob Storage (https o http para desarrollo local)
             if (azureStorageEnabled && (fileReference.startsWith("https://") || fileReference.startsWith("http://"))
                     && azureBlobStorageService != null) {
-                boolean deleted = azureBlobStorageService.deleteFile(fileReference);
-                if (deleted) {
+                if (azureBlobStorageService.deleteFile(fileReference)) {
                     log.info("🗑️ Archivo eliminado de Azure Blob Storage: {}", fileReference);
-                } else {
-                    log.warn("⚠️ No se pudo eliminar el archivo de Azure: {}", fileReference);
                 }
                 return;
             }
@@ -145,6 +358,62 @@ public class FileStorageService {
         }
     }
 
+    /**
+     * Resta una referencia al archivo. La fila se conserva con 0 referencias hasta que
+     * {@link #deleteIfUnreferenced(String)} elimina el archivo, para que una subida con el mismo
+     * contenido en ese intervalo la reutilice en lugar de escribir un archivo que luego se borraría.
+     *
+     * @return true si ya nadie lo usa y debe eliminarse físicamente (también para archivos sin
+     *         registro, como los anteriores a la deduplicación)
+     */
+    public boolean releaseReference(String fileReference) {
+        Optional<Integer> remaining = storedFileRepository.decrementByReference(fileReference);
+        return remaining.isEmpty() || remaining.get() <= 0;
+    }
+
+    /** Los archivos deduplicados se nombran con el SHA-256 (64 caracteres hex) de su contenido. */
+    private static boolean isContentAddressed(String fileReference) {
+        String name = fileReference.substring(fileReference.lastIndexOf('/') + 1);
+        int dot = name.indexOf('.');
+        String base = dot >= 0 ? name.substring(0, dot) : name;
+        return CONTENT_HASH_NAME.matcher(base).matches();
+    }
+
+    /** Hash SHA-256 del contenido en una lectura en streaming, sin cargar el archivo en memoria. */
+    private String hashOf(MultipartFile file) throws IOException {
+        MessageDigest digest = newDigest();
+        try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 no está disponible", ex);
+        }
+    }
+
+    private static String extensionOf(String originalFileName) {
+        if (originalFileName != null && originalFileName.contains(".")) {
+            return originalFileName.substring(originalFileName.lastIndexOf(".")).toLowerCase();
+        }
+        return "";
+    }
+
+    private void deleteTempQuietly(Path tempFile) {
+        if (tempFile == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(tempFile);
+        } catch (IOException ex) {
+            log.warn("⚠️ No se pudo eliminar el archivo temporal {}", tempFile);
+        }
+    }
+
     /**
      * Obtiene la URL pública del archivo
      * Si usa Azure, retorna la URL directamente
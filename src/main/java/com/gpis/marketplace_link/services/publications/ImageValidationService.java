@@ -5,6 +5,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.Arrays;
 import java.util.List;
 
@@ -22,6 +23,8 @@ public class ImageValidationService {
             "52494646" // WEBP
     );
 
+    private static final int SIGNATURE_LENGTH = 4;
+
     public void validateImages(List<MultipartFile> files) {
         if (files == null || files.isEmpty()) {
             return;
@@ -67,13 +70,20 @@ public class ImageValidationService {
         }
     }
 
+    /**
+     * Lee solo la cabecera del archivo (los primeros bytes) para comprobar la firma, sin cargar
+     * el contenido completo en memoria.
+     */
     private boolean hasValidImageSignature(MultipartFile file) throws IOException {
-        byte[] fileBytes = file.getBytes();
-        if (fileBytes.length < 4) {
+        byte[] head;
+        try (InputStream in = file.getInputStream()) {
+            head = in.readNBytes(SIGNATURE_LENGTH);
+        }
+        if (head.length < SIGNATURE_LENGTH) {
             return false;
         }
 
-        String fileSignature = bytesToHex(Arrays.copyOfRange(fileBytes, 0, Math.min(4, fileBytes.length)));
+        String fileSignature = bytesToHex(head);
 
         for (String signature : IMAGE_SIGNATURES) {
             if (fileSignature.startsWith(signature.substring(0, Math.min(6, signature.length())))) {
@@ -0,0 +1,194 @@
+package com.gpis.marketplace_link.services.publications;
+
+import com.gpis.marketplace_link.entities.PublicationImage;
+import com.gpis.marketplace_link.repositories.PublicationImageRepository;
+import com.gpis.marketplace_link.services.publications.events.PublicationImagesStoredEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Genera las variantes redimensionadas de las imágenes de publicaciones (miniatura, tarjeta y completa)
+ * en segundo plano, después de que la publicación se confirma.
+ *
+ * Las variantes se codifican en JPEG, que es lo que ImageIO puede escribir sin dependencias adicionales.
+ * Si la imagen original ya es más pequeña que una variante, esa variante no se genera y los clientes
+ * usan el original.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ImageVariantService {
+
+    private static final int THUMB_WIDTH = 160;
+    private static final int CARD_WIDTH = 480;
+    private static final int FULL_WIDTH = 1280;
+    private static final float JPEG_QUALITY = 0.8f;
+
+    private final PublicationImageRepository publicationImageRepository;
+    private final FileStorageService fileStorageService;
+    private final FileDeletionQueueService fileDeletionQueueService;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Sin transacción activa el evento se procesa igual: las imágenes ya quedaron guardadas y, si no,
+     * se perdería en silencio y la publicación se quedaría sin variantes.
+     */
+    @Async("imageProcessingExecutor")
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onImagesStored(PublicationImagesStoredEvent event) {
+        for (Long imageId : event.imageIds()) {
+            try {
+                generateVariants(imageId);
+            } catch (Exception ex) {
+                log.error("❌ No se pudieron generar las variantes de la imagen {}", imageId, ex);
+            }
+        }
+    }
+
+    /**
+     * Genera las variantes de la imagen y la marca como procesada, también cuando no corresponde
+     * ninguna variante, para no volver a procesarla.
+     *
+     * Cada variante guardada suma una referencia al archivo; las referencias que ya no se usan
+     * (variantes anteriores, o las nuevas si otro proceso terminó primero) se liberan por la cola
+     * de eliminación.
+     */
+    public void generateVariants(Long imageId) throws IOException {
+        PublicationImage image = publicationImageRepository.findById(imageId).orElse(null);
+        if (image == null || image.isVariantsGenerated()) {
+            return;
+        }
+
+        List<String> stored = new ArrayList<>();
+        String thumbPath = null;
+        String cardPath = null;
+        String fullPath = null;
+        try {
+            BufferedImage source = readDownsampled(image.getPath(), FULL_WIDTH);
+            if (source == null) {
+                log.warn("⚠️ Formato no soportado para generar variantes: {}", image.getPath());
+            } else {
+                thumbPath = storeVariant(source, THUMB_WIDTH, stored);
+                cardPath = storeVariant(source, CARD_WIDTH, stored);
+                fullPath = storeVariant(source, FULL_WIDTH, stored);
+            }
+        } catch (IOException | RuntimeException ex) {
+            releaseQuietly(stored);
+            throw ex;
+        }
+
+        List<String> previous = Stream.of(image.getThumbPath(), image.getCardPath(), image.getFullPath())
+                .filter(Objects::nonNull)
+                .toList();
+        String thumb = thumbPath;
+        String card = cardPath;
+        String full = fullPath;
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (publicationImageRepository.updateVariants(imageId, thumb, card, full) > 0) {
+                fileDeletionQueueService.enqueue(previous);
+            } else {
+                fileDeletionQueueService.enqueue(stored);
+            }
+        });
+        log.info("🖼️ Variantes procesadas para la imagen {} ({} generadas)", imageId, stored.size());
+    }
+
+    private void releaseQuietly(List<String> references) {
+        try {
+            fileDeletionQueueService.enqueue(references);
+        } catch (Exception ex) {
+            log.error("❌ No se pudieron liberar las variantes {} de una generación fallida", references, ex);
+        }
+    }
+
+    /**
+     * Decodifica la imagen con submuestreo, de modo que una foto de varios megapíxeles no se
+     * carga completa en memoria cuando solo se necesita a {@code targetWidth} píxeles.
+     */
+    private BufferedImage readDownsampled(String reference, int targetWidth) throws IOException {
+        try (InputStream in = fileStorageService.openFile(reference);
+             ImageInputStream imageInput = ImageIO.createImageInputStream(in)) {
+
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(imageInput);
+            if (!readers.hasNext()) {
+                return null;
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(imageInput, true, true);
+                int step = Math.max(1, reader.getWidth(0) / targetWidth);
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private String storeVariant(BufferedImage source, int width, List<String> stored) throws IOException {
+        if (source.getWidth() <= width) {
+            return null;
+        }
+
+        int height = Math.max(1, Math.round(source.getHeight() * (width / (float) source.getWidth())));
+        BufferedImage resized = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = resized.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            // Fondo blanco para imágenes con transparencia (PNG/GIF), ya que JPEG no la admite
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        String reference = fileStorageService.storeBytes(encodeJpeg(resized), ".jpg", "image/jpeg");
+        stored.add(reference);
+        return reference;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream imageOutput = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(imageOutput);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,178 @@
+package com.gpis.marketplace_link.services.publications;
+
+import com.gpis.marketplace_link.dto.publication.projections.PublicationClusterProjection;
+import com.gpis.marketplace_link.dto.publication.response.PublicationClusterResponse;
+import com.gpis.marketplace_link.exceptions.business.publications.InvalidBoundingBoxException;
+import com.gpis.marketplace_link.repositories.PublicationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Agrupa las publicaciones del mapa por celdas para que el cliente reciba una respuesta pequeña
+ * por vista en lugar de páginas de publicaciones.
+ *
+ * El mundo se divide en una grilla de mosaicos en grados (360 / 2^zoom de lado) y cada mosaico en
+ * {@link #CELLS_PER_TILE} x {@link #CELLS_PER_TILE} celdas. Los mosaicos se guardan en una caché de
+ * corta duración: al desplazar el mapa solo se consultan los mosaicos nuevos, todos en una misma
+ * sentencia.
+ */
+@Service
+public class PublicationClusterService {
+
+    private static final int CELLS_PER_TILE = 8;
+    private static final int MAX_ZOOM = 20;
+    private static final int MAX_TILES_PER_REQUEST = 64;
+    private static final int MAX_CACHED_TILES = 20_000;
+    private static final int MAX_SEARCH_QUERY_LENGTH = 200;
+
+    private final PublicationRepository publicationRepository;
+    private final long cacheTtlMillis;
+
+    private final Map<TileKey, CachedTile> tileCache = new ConcurrentHashMap<>();
+
+    public PublicationClusterService(PublicationRepository publicationRepository,
+            @Value("${CLUSTER_CACHE_TTL_SECONDS:30}") long cacheTtlSeconds) {
+        this.publicationRepository = publicationRepository;
+        this.cacheTtlMillis = cacheTtlSeconds * 1000;
+    }
+
+    /**
+     * Grupos de publicaciones dentro del rectángulo, con los mismos filtros de visibilidad que el feed.
+     * Si el rectángulo abarca demasiados mosaicos para el zoom pedido, se usa un zoom menor.
+     *
+     * @throws InvalidBoundingBoxException si el rectángulo está invertido (no se admite cruzar el antimeridiano)
+     */
+    @Transactional(readOnly = true)
+    public List<PublicationClusterResponse> getClusters(double minLat, double minLon, double maxLat, double maxLon,
+            int zoom, String q, List<Long> categoryIds, BigDecimal minPrice, BigDecimal maxPrice) {
+
+        if (minLat > maxLat || minLon > maxLon) {
+            throw new InvalidBoundingBoxException("El rectángulo debe cumplir minLat <= maxLat y minLon <= maxLon");
+        }
+        double south = Math.clamp(minLat, -90d, 90d);
+        double north = Math.clamp(maxLat, -90d, 90d);
+        double west = Math.clamp(minLon, -180d, 180d);
+        double east = Math.clamp(maxLon, -180d, 180d);
+
+        Filters filters = Filters.of(q, categoryIds, minPrice, maxPrice);
+
+        int z = Math.clamp(zoom, 0, MAX_ZOOM);
+        while (z > 0 && tileCount(west, south, east, north, tileSize(z)) > MAX_TILES_PER_REQUEST) {
+            z--;
+        }
+        double tileSize = tileSize(z);
+
+        long now = System.currentTimeMillis();
+        List<PublicationClusterResponse> result = new ArrayList<>();
+        List<TileKey> missing = new ArrayList<>();
+        for (long x = tileIndex(west, tileSize); x <= tileIndex(east, tileSize); x++) {
+            for (long y = tileIndex(south, tileSize); y <= tileIndex(north, tileSize); y++) {
+                TileKey key = new TileKey(z, x, y, filters);
+                CachedTile cached = tileCache.get(key);
+                if (cached != null && cached.expiresAt() > now) {
+                    result.addAll(cached.clusters());
+                } else {
+                    missing.add(key);
+                }
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            Map<TileKey, List<PublicationClusterResponse>> loaded = loadTiles(z, tileSize, missing, filters);
+            long expiresAt = now + cacheTtlMillis;
+            for (TileKey key : missing) {
+                List<PublicationClusterResponse> clusters = loaded.getOrDefault(key, List.of());
+                putInCache(key, new CachedTile(clusters, expiresAt), now);
+                result.addAll(clusters);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Consulta en una sola sentencia el rectángulo que cubre los mosaicos faltantes y reparte cada
+     * celda en su mosaico. Las celdas de mosaicos que no se pidieron (ya en caché) se descartan.
+     */
+    private Map<TileKey, List<PublicationClusterResponse>> loadTiles(int zoom, double tileSize,
+            List<TileKey> missing, Filters filters) {
+
+        long minX = Long.MAX_VALUE, minY = Long.MAX_VALUE, maxX = Long.MIN_VALUE, maxY = Long.MIN_VALUE;
+        for (TileKey key : missing) {
+            minX = Math.min(minX, key.x());
+            minY = Math.min(minY, key.y());
+            maxX = Math.max(maxX, key.x());
+            maxY = Math.max(maxY, key.y());
+        }
+
+        List<PublicationClusterProjection> rows = publicationRepository.findClusters(
+                filters.q(), filters.categoryIds().toArray(Long[]::new), filters.minPrice(), filters.maxPrice(),
+                null, null,
+                minX * tileSize, minY * tileSize, (maxX + 1) * tileSize, (maxY + 1) * tileSize,
+                tileSize / CELLS_PER_TILE);
+
+        Map<TileKey, List<PublicationClusterResponse>> byTile = new HashMap<>();
+        for (PublicationClusterProjection row : rows) {
+            TileKey key = new TileKey(zoom,
+                    Math.floorDiv(row.getCellX(), CELLS_PER_TILE),
+                    Math.floorDiv(row.getCellY(), CELLS_PER_TILE),
+                    filters);
+            byTile.computeIfAbsent(key, k -> new ArrayList<>())
+                    .add(new PublicationClusterResponse(row.getLatitude(), row.getLongitude(),
+                            row.getCount(), row.getPublicationId()));
+        }
+        byTile.keySet().retainAll(missing);
+        return byTile;
+    }
+
+    private void putInCache(TileKey key, CachedTile entry, long now) {
+        if (tileCache.size() >= MAX_CACHED_TILES) {
+            tileCache.values().removeIf(c -> c.expiresAt() <= now);
+            if (tileCache.size() >= MAX_CACHED_TILES) {
+                tileCache.clear();
+            }
+        }
+        tileCache.put(key, entry);
+    }
+
+    private static double tileSize(int zoom) {
+        return 360d / (1L << zoom);
+    }
+
+    private static long tileIndex(double coordinate, double tileSize) {
+        return (long) Math.floor(coordinate / tileSize);
+    }
+
+    private static long tileCount(double west, double south, double east, double north, double tileSize) {
+        long columns = tileIndex(east, tileSize) - tileIndex(west, tileSize) + 1;
+        long rows = tileIndex(north, tileSize) - tileIndex(south, tileSize) + 1;
+        return columns * rows;
+    }
+
+    /** Filtros normalizados para que peticiones equivalentes compartan los mosaicos en caché. */
+    private record Filters(String q, List<Long> categoryIds, BigDecimal minPrice, BigDecimal maxPrice) {
+
+        static Filters of(String q, List<Long> categoryIds, BigDecimal minPrice, BigDecimal maxPrice) {
+            String query = q == null || q.isBlank() ? null : q.trim();
+            if (query != null && query.length() > MAX_SEARCH_QUERY_LENGTH) {
+                query = query.substring(0, MAX_SEARCH_QUERY_LENGTH);
+            }
+            List<Long> categories = categoryIds == null ? List.of() : categoryIds.stream().distinct().sorted().toList();
+            return new Filters(query, categories,
+                    minPrice != null ? minPrice.stripTrailingZeros() : null,
+                    maxPrice != null ? maxPrice.stripTrailingZeros() : null);
+        }
+    }
+
+    private record TileKey(int zoom, long x, long y, Filters filters) {}
+
+    private record CachedTile(List<PublicationClusterResponse> clusters, long expiresAt) {}
+}
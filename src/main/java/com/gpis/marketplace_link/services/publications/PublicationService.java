@@ -1,15 +1,19 @@
 package com.gpis.marketplace_link.services.publications;
 
 import com.gpis.marketplace_link.dto.incidence.RequestSystemReport;
+import com.gpis.marketplace_link.dto.publication.projections.IdRangeProjection;
+import com.gpis.marketplace_link.dto.publication.projections.PublicationSummaryProjection;
 import com.gpis.marketplace_link.dto.publication.request.PublicationCreateRequest;
 import com.gpis.marketplace_link.dto.publication.request.PublicationUpdateRequest;
+import com.gpis.marketplace_link.dto.publication.response.CursorPageResponse;
 import com.gpis.marketplace_link.dto.publication.response.PublicationResponse;
 import com.gpis.marketplace_link.dto.publication.response.PublicationSummaryResponse;
 import com.gpis.marketplace_link.entities.Publication;
 import com.gpis.marketplace_link.entities.PublicationImage;
-import com.gpis.marketplace_link.entities.User;
 import com.gpis.marketplace_link.enums.PublicationType;
+import com.gpis.marketplace_link.exceptions.business.AccessDeniedException;
 import com.gpis.marketplace_link.exceptions.business.publications.DangerousContentException;
+import com.gpis.marketplace_link.exceptions.business.publications.InvalidFeedSortException;
 import com.gpis.marketplace_link.exceptions.business.publications.PublicationCanNotDeleteException;
 import com.gpis.marketplace_link.exceptions.business.publications.PublicationNotFoundException;
 import com.gpis.marketplace_link.exceptions.business.publications.UserIsNotVendorException;
@@ -17,26 +21,30 @@ import com.gpis.marketplace_link.mappers.PublicationMapper;
 import com.gpis.marketplace_link.repositories.PublicationRepository;
 import com.gpis.marketplace_link.repositories.UserRepository;
 import com.gpis.marketplace_link.repositories.CategoryRepository;
-import com.gpis.marketplace_link.repositories.ReportRepository;
 import com.gpis.marketplace_link.security.service.SecurityService;
-import com.gpis.marketplace_link.entities.Report;
+import com.gpis.marketplace_link.security.service.UserRoleCache;
 import com.gpis.marketplace_link.services.incidence.IncidenceService;
 import com.gpis.marketplace_link.services.incidence.IncidenceServiceImp;
+import com.gpis.marketplace_link.services.publications.events.PublicationImagesStoredEvent;
 import com.gpis.marketplace_link.services.publications.valueObjects.DangerousWordMatch;
+import com.gpis.marketplace_link.services.publications.valueObjects.PublicationCursor;
+import com.gpis.marketplace_link.services.publications.valueObjects.StagedImages;
 import com.gpis.marketplace_link.specifications.PublicationSpecifications;
 import com.gpis.marketplace_link.enums.PublicationStatus;
+import org.locationtech.jts.geom.Point;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.Optional;
 
 import org.slf4j.Logger;
 import java.util.stream.Collectors;
@@ -46,63 +54,110 @@ public class PublicationService {
 
     private final PublicationRepository repository;
     private final PublicationMapper mapper;
-    private final FileStorageService fileStorageService;
+    private final FileDeletionQueueService fileDeletionQueueService;
     private final DangerousContentDetectedService dangerousContentDetectedService;
     private final UserRepository userRepository;
     private final CategoryRepository categoryRepository;
-    private final ImageValidationService imageValidationService;
+    private final StagedUploadService stagedUploadService;
     private final IncidenceService incidenceService;
     private final FavoritePublicationService favoritePublicationService;
     private final SecurityService securityService;
-    private final ReportRepository reportRepository;
+    private final ReportEligibilityService reportEligibilityService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserRoleCache userRoleCache;
     private static final Logger logger = LoggerFactory.getLogger(PublicationService.class);
+    private static final int SUSPEND_CHUNK_SIZE = 5_000;
+    private static final int MAX_SEARCH_QUERY_LENGTH = 200;
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+    private static final String SORT_RECENT = "recent";
+    private static final String SORT_DISTANCE = "distance";
 
     public PublicationService(PublicationRepository repository, PublicationMapper mapper,
-            FileStorageService fileStorageService, UserRepository userRepository, CategoryRepository categoryRepository,
-            ImageValidationService imageValidationService, IncidenceServiceImp incidenceServiceImp,
+            FileDeletionQueueService fileDeletionQueueService, UserRepository userRepository, CategoryRepository categoryRepository,
+            StagedUploadService stagedUploadService, IncidenceServiceImp incidenceServiceImp,
             DangerousContentDetectedService dangerousContentDetectedService,
             FavoritePublicationService favoritePublicationService, SecurityService securityService,
-            ReportRepository reportRepository) {
+            ReportEligibilityService reportEligibilityService, ApplicationEventPublisher eventPublisher,
+            UserRoleCache userRoleCache) {
         this.repository = repository;
         this.mapper = mapper;
-        this.fileStorageService = fileStorageService;
+        this.fileDeletionQueueService = fileDeletionQueueService;
         this.incidenceService = incidenceServiceImp;
         this.userRepository = userRepository;
         this.categoryRepository = categoryRepository;
-        this.imageValidationService = imageValidationService;
+        this.stagedUploadService = stagedUploadService;
         this.dangerousContentDetectedService = dangerousContentDetectedService;
         this.favoritePublicationService = favoritePublicationService;
         this.securityService = securityService;
-        this.reportRepository = reportRepository;
+        this.reportEligibilityService = reportEligibilityService;
+        this.eventPublisher = eventPublisher;
+        this.userRoleCache = userRoleCache;
     }
 
+    /**
+     * Feed público paginado. Usa la consulta de resumen ({@link PublicationRepository#findFeedSummaries}),
+     * que trae cada tarjeta con su primera imagen en una sola sentencia. Sin búsqueda el orden es
+     * publicationDate DESC, id DESC; con {@code q} los resultados se ordenan primero por relevancia.
+     * Con {@code sort=distance} se ordenan de la más cercana a la más lejana a (lat, lon), que son obligatorios.
+     */
     @Transactional(readOnly = true)
-    public Page<PublicationSummaryResponse> getAll(Pageable pageable, List<Long> categoryIds, BigDecimal minPrice,
-            BigDecimal maxPrice, Double lat, Double lon, Double distanceKm) {
+    public Page<PublicationSummaryResponse> getAll(Pageable pageable, String sort, String q, List<Long> categoryIds,
+            BigDecimal minPrice, BigDecimal maxPrice, Double lat, Double lon, Double distanceKm) {
 
-        Specification<Publication> spec = PublicationSpecifications.statusIs(PublicationStatus.VISIBLE.getValue())
-                .and(PublicationSpecifications.notDeleted())
-                .and(PublicationSpecifications.notSuspended())
-                .and(PublicationSpecifications.hasAnyCategory(categoryIds))
-                .and(PublicationSpecifications.priceBetween(minPrice, maxPrice))
-                .and(PublicationSpecifications.withinDistance(lat, lon, distanceKm))
-                .and(PublicationSpecifications.vendorAccountStatusIsActive());
+        boolean byDistance = isDistanceSort(sort);
+        String query = normalizeQuery(q);
+        Long[] categories = toCategoryArray(categoryIds);
+        Point point = mapper.toPoint(lat, lon);
+        Double distanceMeters = toDistanceMeters(lat, lon, distanceKm);
 
-        Page<Publication> publications = repository.findAll(spec, pageable);
+        if (byDistance && point == null) {
+            throw new InvalidFeedSortException("El orden por distancia requiere lat y lon");
+        }
 
-        return publications.map(pub -> {
-            PublicationSummaryResponse baseResponse = mapper.toSummaryResponse(pub);
-            Boolean canReport = calculateCanReport(pub);
-            return new PublicationSummaryResponse(
-                    baseResponse.id(),
-                    baseResponse.type(),
-                    baseResponse.name(),
-                    baseResponse.price(),
-                    baseResponse.availability(),
-                    baseResponse.publicationDate(),
-                    baseResponse.image(),
-                    canReport);
-        });
+        List<PublicationSummaryProjection> rows = byDistance
+                ? repository.findFeedSummariesByDistance(query, categories, minPrice, maxPrice, point, distanceMeters,
+                        pageable.getPageSize(), pageable.getOffset())
+                : repository.findFeedSummaries(query, query != null, categories, minPrice, maxPrice, point,
+                        distanceMeters, null, null, pageable.getPageSize(), pageable.getOffset());
+
+        // El COUNT solo se ejecuta cuando la página no permite deducir el total
+        return PageableExecutionUtils.getPage(toSummaries(rows), pageable,
+                () -> repository.countFeedSummaries(query, categories, minPrice, maxPrice, point, distanceMeters));
+    }
+
+    /**
+     * Variante por cursor (keyset) del feed público: busca a partir de (publicationDate, id)
+     * del último elemento entregado y no ejecuta la consulta COUNT, por lo que el costo de
+     * cada página no depende de su profundidad. Con {@code q} se filtra por la búsqueda pero
+     * se mantiene el orden por fecha, que es el que permite el cursor. El tamaño de página se
+     * limita a {@value #MAX_CURSOR_PAGE_SIZE}.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<PublicationSummaryResponse> getAllByCursor(String cursor, int size, String q,
+            List<Long> categoryIds, BigDecimal minPrice, BigDecimal maxPrice, Double lat, Double lon,
+            Double distanceKm) {
+
+        PublicationCursor position = PublicationCursor.decode(cursor);
+        int limit = Math.clamp(size, 1, MAX_CURSOR_PAGE_SIZE);
+
+        // Se pide un elemento extra solo para saber si existe una página siguiente
+        List<PublicationSummaryProjection> rows = repository.findFeedSummaries(
+                normalizeQuery(q), false, toCategoryArray(categoryIds), minPrice, maxPrice,
+                mapper.toPoint(lat, lon), toDistanceMeters(lat, lon, distanceKm),
+                position != null ? position.publicationDate() : null,
+                position != null ? position.id() : null,
+                limit + 1, 0);
+
+        boolean hasNext = rows.size() > limit;
+        List<PublicationSummaryProjection> pageRows = hasNext ? rows.subList(0, limit) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            PublicationSummaryProjection last = pageRows.get(pageRows.size() - 1);
+            nextCursor = new PublicationCursor(last.getPublicationDate(), last.getId()).encode();
+        }
+
+        return new CursorPageResponse<>(toSummaries(pageRows), pageRows.size(), nextCursor, hasNext);
     }
 
     @Transactional(readOnly = true)
@@ -117,19 +172,7 @@ public class PublicationService {
 
         Page<Publication> publications = repository.findAll(spec, pageable);
 
-        return publications.map(pub -> {
-            PublicationSummaryResponse baseResponse = mapper.toSummaryResponse(pub);
-            Boolean canReport = calculateCanReport(pub);
-            return new PublicationSummaryResponse(
-                    baseResponse.id(),
-                    baseResponse.type(),
-                    baseResponse.name(),
-                    baseResponse.price(),
-                    baseResponse.availability(),
-                    baseResponse.publicationDate(),
-                    baseResponse.image(),
-                    canReport);
-        });
+        return toSummaryPage(publications);
     }
 
     public PublicationResponse getById(Long id) {
@@ -140,18 +183,35 @@ public class PublicationService {
 
     }
 
+    /**
+     * Comprobaciones previas a la creación. El controlador las ejecuta antes de subir las imágenes,
+     * para que un usuario sin permiso no llegue a escribir archivos en el almacenamiento.
+     */
+    public void validateCanCreate(Long vendorId) {
+        validateUserAndRole(vendorId);
+    }
+
+    /**
+     * Igual que {@link #validateCanCreate(Long)} para la edición: además la publicación debe
+     * pertenecer al usuario autenticado.
+     */
+    public void validateCanUpdate(Long id, Long vendorId) {
+        validateUserAndRole(vendorId);
+        Long ownerId = repository.findVendorIdById(id)
+                .orElseThrow(() -> new PublicationNotFoundException("Publication con id " + id + " no encontrada"));
+        validateOwnership(ownerId, vendorId);
+    }
+
+    /**
+     * Guarda una nueva publicación con imágenes ya subidas mediante {@link StagedUploadService#stage(List)}.
+     * La transacción solo contiene trabajo de base de datos y confirma las subidas al guardar.
+     */
     @Transactional(noRollbackFor = DangerousContentException.class)
-    public PublicationResponse create(PublicationCreateRequest request) {
+    public PublicationResponse create(PublicationCreateRequest request, StagedImages images) {
 
         validateUserAndRole(request.vendorId());
 
-        imageValidationService.validateImages(request.images());
-
-        List<String> imagesNames = request.images().stream()
-                .map(fileStorageService::storeFile)
-                .filter(Objects::nonNull)
-                .filter(s -> !s.isBlank())
-                .toList();
+        stagedUploadService.commit(images);
 
         Publication publication = mapper.toEntity(request);
 
@@ -160,7 +220,7 @@ public class PublicationService {
 
         publication.setImages(new ArrayList<>());
 
-        for (String path : imagesNames) {
+        for (String path : images.references()) {
             PublicationImage img = new PublicationImage();
             img.setPath(path);
             img.setPublication(publication);
@@ -170,19 +230,24 @@ public class PublicationService {
         validateDangerousContent(publication);
 
         publication.setStatus(PublicationStatus.VISIBLE);
-        Publication saved = repository.save(publication);
+        Publication saved = repository.saveAndFlush(publication);
+
+        publishImagesWithoutVariants(saved);
 
         return mapper.toResponse(saved);
     }
 
+    /**
+     * Actualiza una publicación; las imágenes nuevas llegan ya subidas mediante
+     * {@link StagedUploadService#stage(List)}.
+     */
     @Transactional(noRollbackFor = DangerousContentException.class)
-    public PublicationResponse update(Long id, PublicationUpdateRequest request) {
-
-        imageValidationService.validateImages(request.images());
+    public PublicationResponse update(Long id, PublicationUpdateRequest request, StagedImages newImages) {
 
         validateUserAndRole(request.vendorId());
 
         Publication publication = this.validatePublication(id);
+        validateOwnership(publication.getVendor().getId(), request.vendorId());
 
         mapper.updateFromRequest(publication, request);
 
@@ -208,66 +273,46 @@ public class PublicationService {
         // 3. Eliminar imágenes (BD y Storage)
         for (PublicationImage img : imagesToRemove) {
             publication.getImages().remove(img);
-            fileStorageService.deleteFile(img.getPath());
+            fileDeletionQueueService.enqueue(img.storedPaths());
         }
 
         // 4. Procesar NUEVAS imágenes (archivos subidos)
-        if (request.images() != null) {
-            for (MultipartFile file : request.images()) {
-                if (file.isEmpty())
-                    continue;
-
-                String path = fileStorageService.storeFile(file);
-                PublicationImage img = new PublicationImage();
-                img.setPath(path);
-                img.setPublication(publication);
-                publication.getImages().add(img);
-            }
+        stagedUploadService.commit(newImages);
+        for (String path : newImages.references()) {
+            PublicationImage img = new PublicationImage();
+            img.setPath(path);
+            img.setPublication(publication);
+            publication.getImages().add(img);
         }
 
         validateDangerousContent(publication);
 
-        Publication saved = repository.save(publication);
+        Publication saved = repository.saveAndFlush(publication);
+
+        publishImagesWithoutVariants(saved);
 
         return mapper.toResponse(saved);
 
     }
 
     @Transactional
-    public void blockPublicationsByVendor(Long vendorId) {
-        List<Publication> publications = repository.findAllByVendorIdAndDeletedAtIsNull(vendorId);
-        List<Publication> toUpdate = new ArrayList<>();
-        for (Publication publication : publications) {
-            if (publication.getStatus() != PublicationStatus.BLOCKED) {
-                publication.setPreviousStatus(publication.getStatus());
-                publication.setStatus(PublicationStatus.BLOCKED);
-            }
-            favoritePublicationService.removeFavoritesByPublicationId(publication.getId());
-            toUpdate.add(publication);
-        }
-        if (!toUpdate.isEmpty()) {
-            repository.saveAll(toUpdate);
-        }
+    public int blockPublicationsByVendor(Long vendorId) {
+        int favorites = favoritePublicationService.removeFavoritesByVendorId(vendorId);
+        int blocked = repository.blockAllByVendorId(vendorId);
+        logger.info("Vendedor {}: {} publicaciones bloqueadas y {} favoritos retirados", vendorId, blocked, favorites);
+        return blocked;
     }
 
+    /**
+     * Restaura las publicaciones bloqueadas del vendedor. Los favoritos se restauran primero,
+     * porque se identifican por el estado BLOCKED de su publicación.
+     */
     @Transactional
-    public void restorePublicationsByVendor(Long vendorId) {
-        List<Publication> publications = repository.findAllByVendorIdAndDeletedAtIsNull(vendorId);
-        List<Publication> toUpdate = new ArrayList<>();
-        for (Publication publication : publications) {
-            if (publication.getStatus() == PublicationStatus.BLOCKED) {
-                PublicationStatus previous = publication.getPreviousStatus() != null
-                        ? publication.getPreviousStatus()
-                        : PublicationStatus.VISIBLE;
-                publication.setStatus(previous);
-                publication.setPreviousStatus(null);
-                favoritePublicationService.restoreFavoritesByPublicationId(publication.getId());
-                toUpdate.add(publication);
-            }
-        }
-        if (!toUpdate.isEmpty()) {
-            repository.saveAll(toUpdate);
-        }
+    public int restorePublicationsByVendor(Long vendorId) {
+        int favorites = favoritePublicationService.restoreFavoritesOfBlockedByVendorId(vendorId);
+        int restored = repository.restoreAllBlockedByVendorId(vendorId);
+        logger.info("Vendedor {}: {} publicaciones restauradas y {} favoritos recuperados", vendorId, restored, favorites);
+        return restored;
     }
 
     @Transactional
@@ -284,8 +329,7 @@ public class PublicationService {
         favoritePublicationService.removeFavoritesByPublicationId(publication.getId());
 
         List<String> imagePaths = publication.getImages().stream()
-                .map(PublicationImage::getPath)
-                .filter(Objects::nonNull)
+                .flatMap(image -> image.storedPaths().stream())
                 .toList();
 
         publication.setDeletedAt(LocalDateTime.now());
@@ -293,26 +337,36 @@ public class PublicationService {
 
         repository.save(publication);
 
-        for (String path : imagePaths)
-            fileStorageService.deleteFile(path);
+        // Los archivos se eliminan en segundo plano una vez confirmada la transacción
+        fileDeletionQueueService.enqueue(imagePaths);
 
     }
 
-    public void suspendedPublicationsOlderThan(Integer limit) {
-
-        LocalDateTime now = LocalDateTime.now();
-
-        List<Publication> publications = this.repository.findAll();
-
-        List<Publication> toSuspend = new ArrayList<>();
-        for (Publication pub : publications) {
-            if (pub.getPublicationDate().plusSeconds(limit).isBefore(now) && !pub.isSuspended()) {
-                pub.setSuspended(true);
-                toSuspend.add(pub);
-                logger.info("Se ha suspendido la publicación con id: {}", pub.getId());
+    /**
+     * Suspende las publicaciones cuya fecha de publicación supera el límite indicado.
+     *
+     * Se resuelve en la base de datos con UPDATE por rangos de ID, sin cargar las publicaciones
+     * en memoria y sin mantener bloqueos largos.
+     *
+     * @param limit antigüedad máxima permitida, en segundos
+     * @return cantidad de publicaciones suspendidas
+     */
+    public int suspendedPublicationsOlderThan(Integer limit) {
+
+        LocalDateTime cutoff = LocalDateTime.now().minusSeconds(limit);
+        IdRangeProjection range = this.repository.findIdRange();
+
+        int suspended = 0;
+        for (long fromId = range.getMinId(); fromId <= range.getMaxId(); fromId += SUSPEND_CHUNK_SIZE) {
+            long toId = fromId + SUSPEND_CHUNK_SIZE - 1;
+            List<Long> ids = this.repository.suspendPublishedBeforeInIdRange(cutoff, fromId, toId);
+            if (!ids.isEmpty()) {
+                logger.info("Se han suspendido {} publicaciones con id entre {} y {}", ids.size(), fromId, toId);
+                logger.debug("IDs suspendidos entre {} y {}: {}", fromId, toId, ids);
             }
+            suspended += ids.size();
         }
-        repository.saveAll(toSuspend);
+        return suspended;
 
     }
 
@@ -330,16 +384,37 @@ public class PublicationService {
 
     }
 
+    /**
+     * Solicita generar variantes para las imágenes que aún no las tienen; se procesan
+     * en segundo plano cuando la transacción se confirma.
+     */
+    private void publishImagesWithoutVariants(Publication publication) {
+        List<Long> imageIds = publication.getImages().stream()
+                .filter(image -> !image.isVariantsGenerated())
+                .map(PublicationImage::getId)
+                .toList();
+
+        if (imageIds.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            logger.warn("Variantes solicitadas fuera de una transacción para las imágenes {}; se procesan sin esperar al commit",
+                    imageIds);
+        }
+        eventPublisher.publishEvent(new PublicationImagesStoredEvent(imageIds));
+    }
+
     private void validateDangerousContent(Publication publication) {
-        if (dangerousContentDetectedService.containsDangerousContent(publication.getName())
-                || dangerousContentDetectedService.containsDangerousContent(publication.getDescription())) {
+        // Una sola pasada sobre nombre y descripción obtiene todas las coincidencias
+        List<DangerousWordMatch> dangerousWordsDetected = dangerousContentDetectedService.findDangerousWords(
+                Objects.toString(publication.getName(), "") + " "
+                        + Objects.toString(publication.getDescription(), ""));
+
+        if (!dangerousWordsDetected.isEmpty()) {
 
             publication.setStatus(PublicationStatus.UNDER_REVIEW);
             Publication saved = repository.save(publication);
 
-            List<DangerousWordMatch> dangerousWordsDetected = dangerousContentDetectedService.findDangerousWords(
-                    publication.getName() + " " + publication.getDescription());
-
             this.reportPublicationForDangerousContent(saved, dangerousWordsDetected);
 
             throw new DangerousContentException(
@@ -362,37 +437,81 @@ public class PublicationService {
     }
 
     private void validateUserAndRole(Long id) {
-        User user = userRepository.findById(id)
+        Set<String> roles = userRoleCache.rolesOf(id)
                 .orElseThrow(() -> new IllegalArgumentException("Usuario no encontrado"));
 
-        if (user.getRoles().stream().noneMatch(r -> r.getName().equals("ROLE_SELLER"))) {
+        if (!roles.contains("ROLE_SELLER")) {
             throw new UserIsNotVendorException("El usuario no es vendedor");
         }
     }
 
-    private Boolean calculateCanReport(Publication publication) {
-        try {
-            Long currentUserId = securityService.getCurrentUserId();
+    private void validateOwnership(Long ownerId, Long vendorId) {
+        Long currentUserId = securityService.getCurrentUserId();
+        if (!ownerId.equals(currentUserId) || !ownerId.equals(vendorId)) {
+            throw new AccessDeniedException("No puedes modificar una publicación de otro vendedor");
+        }
+    }
 
-            if (publication.getVendor().getId().equals(currentUserId)) {
-                return false;
-            }
+    private Page<PublicationSummaryResponse> toSummaryPage(Page<Publication> publications) {
+        Map<Long, Boolean> canReportById = reportEligibilityService.resolveForCurrentUser(publications.getContent());
 
-            Optional<Report> lastReport = reportRepository.findLastReportByReporterIdAndPublicationId(
-                    currentUserId, publication.getId());
+        return publications.map(pub -> toSummary(pub, canReportById));
+    }
 
-            if (lastReport.isPresent()) {
-                LocalDateTime lastReportTime = lastReport.get().getCreatedAt();
-                LocalDateTime twentyFourHoursAgo = LocalDateTime.now().minusHours(24);
-                if (lastReportTime.isAfter(twentyFourHoursAgo)) {
-                    return false;
-                }
-            }
+    private List<PublicationSummaryResponse> toSummaries(List<PublicationSummaryProjection> rows) {
+        Map<Long, Long> vendorIdByPublicationId = new HashMap<>();
+        for (PublicationSummaryProjection row : rows) {
+            vendorIdByPublicationId.put(row.getId(), row.getVendorId());
+        }
+        Map<Long, Boolean> canReportById = reportEligibilityService.resolveForCurrentUser(vendorIdByPublicationId);
 
-            return true;
-        } catch (Exception e) {
+        return rows.stream()
+                .map(row -> mapper.fromSummaryProjection(row, canReportById.getOrDefault(row.getId(), false)))
+                .toList();
+    }
+
+    private static String normalizeQuery(String q) {
+        if (q == null || q.isBlank()) {
+            return null;
+        }
+        String trimmed = q.trim();
+        return trimmed.length() > MAX_SEARCH_QUERY_LENGTH ? trimmed.substring(0, MAX_SEARCH_QUERY_LENGTH) : trimmed;
+    }
+
+    private static boolean isDistanceSort(String sort) {
+        if (sort == null || sort.isBlank() || SORT_RECENT.equalsIgnoreCase(sort)) {
             return false;
         }
+        if (SORT_DISTANCE.equalsIgnoreCase(sort)) {
+            return true;
+        }
+        throw new InvalidFeedSortException("Orden no soportado: " + sort);
+    }
+
+    private static Long[] toCategoryArray(List<Long> categoryIds) {
+        return categoryIds == null ? new Long[0] : categoryIds.toArray(Long[]::new);
+    }
+
+    /** El filtro de distancia solo aplica si llegan latitud, longitud y distancia, como en withinDistance. */
+    private static Double toDistanceMeters(Double lat, Double lon, Double distanceKm) {
+        if (lat == null || lon == null || distanceKm == null) {
+            return null;
+        }
+        return Math.max(0d, distanceKm) * 1000d;
+    }
+
+    private PublicationSummaryResponse toSummary(Publication pub, Map<Long, Boolean> canReportById) {
+        PublicationSummaryResponse baseResponse = mapper.toSummaryResponse(pub);
+        return new PublicationSummaryResponse(
+                baseResponse.id(),
+                baseResponse.type(),
+                baseResponse.name(),
+                baseResponse.price(),
+                baseResponse.availability(),
+                baseResponse.publicationDate(),
+                baseResponse.image(),
+                canReportById.getOrDefault(pub.getId(), false),
+                null);
     }
 
 }
@@ -0,0 +1,115 @@
+package com.gpis.marketplace_link.services.publications;
+
+import com.gpis.marketplace_link.repositories.PublicationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Autocompletado de búsqueda de publicaciones.
+ *
+ * Las sugerencias salen primero de un árbol de prefijos en memoria con los términos más frecuentes,
+ * que una tarea periódica reconstruye y publica con un intercambio atómico. Solo cuando el árbol no
+ * alcanza (típicamente por un error de tipeo) se consulta la base con similitud de trigramas, y ese
+ * resultado se guarda en una caché de corta duración.
+ */
+@Slf4j
+@Service
+public class PublicationSuggestService {
+
+    private static final int MIN_FUZZY_LENGTH = 3;
+    private static final int MAX_CACHED_QUERIES = 10_000;
+
+    private final PublicationRepository publicationRepository;
+    private final int maxTerms;
+    private final long cacheTtlMillis;
+
+    private final AtomicReference<PublicationSuggestionTrie> trie =
+            new AtomicReference<>(PublicationSuggestionTrie.empty());
+
+    private final Map<String, CachedSuggestions> fuzzyCache = new ConcurrentHashMap<>();
+
+    public PublicationSuggestService(PublicationRepository publicationRepository,
+            @Value("${SUGGEST_TRIE_MAX_TERMS:5000}") int maxTerms,
+            @Value("${SUGGEST_CACHE_TTL_SECONDS:300}") long cacheTtlSeconds) {
+        this.publicationRepository = publicationRepository;
+        this.maxTerms = maxTerms;
+        this.cacheTtlMillis = cacheTtlSeconds * 1000;
+    }
+
+    /**
+     * @param q     texto escrito por el usuario
+     * @param limit máximo de sugerencias (entre 1 y {@link PublicationSuggestionTrie#SUGGESTIONS_PER_NODE})
+     */
+    public List<String> suggest(String q, int limit) {
+        String key = PublicationSuggestionTrie.normalize(q);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        int size = Math.clamp(limit, 1, PublicationSuggestionTrie.SUGGESTIONS_PER_NODE);
+
+        List<String> fromTrie = trie.get().find(key, size);
+        if (fromTrie.size() >= size || key.length() < MIN_FUZZY_LENGTH) {
+            return fromTrie;
+        }
+
+        Set<String> merged = new LinkedHashSet<>(fromTrie);
+        for (String suggestion : fuzzySuggestions(key)) {
+            if (merged.size() >= size) {
+                break;
+            }
+            merged.add(suggestion);
+        }
+        return new ArrayList<>(merged);
+    }
+
+    /**
+     * Reconstruye el árbol con los términos actuales. Ante un error se conserva el árbol vigente.
+     */
+    @Scheduled(fixedDelayString = "${SUGGEST_TRIE_REFRESH_MS:600000}")
+    public void rebuildTrie() {
+        try {
+            PublicationSuggestionTrie rebuilt =
+                    PublicationSuggestionTrie.build(publicationRepository.findSuggestionTerms(maxTerms));
+            trie.set(rebuilt);
+            fuzzyCache.clear();
+            log.info("Árbol de autocompletado reconstruido con {} términos", rebuilt.size());
+        } catch (Exception e) {
+            log.error("No se pudo reconstruir el árbol de autocompletado, se mantiene el vigente", e);
+        }
+    }
+
+    private List<String> fuzzySuggestions(String key) {
+        long now = System.currentTimeMillis();
+        CachedSuggestions cached = fuzzyCache.get(key);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.suggestions();
+        }
+
+        List<String> suggestions = List.copyOf(publicationRepository.findFuzzySuggestions(
+                key, PublicationSuggestionTrie.SUGGESTIONS_PER_NODE));
+        putInCache(key, new CachedSuggestions(suggestions, now + cacheTtlMillis), now);
+        return suggestions;
+    }
+
+    private void putInCache(String key, CachedSuggestions entry, long now) {
+        if (fuzzyCache.size() >= MAX_CACHED_QUERIES) {
+            fuzzyCache.values().removeIf(c -> c.expiresAt() <= now);
+            if (fuzzyCache.size() >= MAX_CACHED_QUERIES) {
+                fuzzyCache.clear();
+            }
+        }
+        fuzzyCache.put(key, entry);
+    }
+
+    private record CachedSuggestions(List<String> suggestions, long expiresAt) {}
+}
@@ -0,0 +1,149 @@
+package com.gpis.marketplace_link.services.publications;
+
+import com.gpis.marketplace_link.dto.publication.projections.SuggestionTermProjection;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Árbol de prefijos con los términos más frecuentes (nombres de publicaciones y categorías) para
+ * el autocompletado.
+ *
+ * Cada nodo guarda ya calculadas sus mejores sugerencias, de modo que una consulta solo recorre
+ * los caracteres del prefijo. Cada término se indexa desde el inicio de cada una de sus palabras
+ * ("pro" sugiere "iPhone 13 Pro"), con una profundidad máxima para acotar la memoria.
+ * Las claves se comparan en minúsculas y sin tildes; la "ñ" se conserva.
+ *
+ * Las instancias son inmutables y seguras para uso concurrente.
+ */
+public final class PublicationSuggestionTrie {
+
+    /** Sugerencias guardadas por nodo; es también el máximo que se puede pedir. */
+    public static final int SUGGESTIONS_PER_NODE = 10;
+
+    private static final int MAX_DEPTH = 12;
+
+    private static final PublicationSuggestionTrie EMPTY = new PublicationSuggestionTrie(new Node(), 0);
+
+    private final Node root;
+    private final int size;
+
+    private PublicationSuggestionTrie(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    public static PublicationSuggestionTrie empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Construye el árbol. Los términos más frecuentes quedan primero en cada nodo.
+     */
+    public static PublicationSuggestionTrie build(Collection<SuggestionTermProjection> terms) {
+        List<SuggestionTermProjection> ordered = terms.stream()
+                .filter(term -> term.getTerm() != null && !term.getTerm().isBlank())
+                .sorted(Comparator.comparing((SuggestionTermProjection term) ->
+                        term.getFrequency() == null ? 0L : term.getFrequency()).reversed())
+                .toList();
+
+        Node root = new Node();
+        int size = 0;
+        for (SuggestionTermProjection term : ordered) {
+            String display = term.getTerm().trim();
+            String key = normalize(display);
+            if (key.isEmpty()) {
+                continue;
+            }
+            for (int start = 0; start < key.length(); start++) {
+                if (start == 0 || key.charAt(start - 1) == ' ') {
+                    insert(root, key, start, display);
+                }
+            }
+            size++;
+        }
+        return new PublicationSuggestionTrie(root, size);
+    }
+
+    /**
+     * @param prefix texto escrito por el usuario (se normaliza aquí)
+     * @param limit  máximo de sugerencias, como mucho {@link #SUGGESTIONS_PER_NODE}
+     */
+    public List<String> find(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+
+        Node node = root;
+        int depth = Math.min(key.length(), MAX_DEPTH);
+        for (int i = 0; i < depth && node != null; i++) {
+            node = node.next.get(key.charAt(i));
+        }
+        if (node == null) {
+            return List.of();
+        }
+
+        // Más allá de la profundidad indexada se filtran las sugerencias del último nodo
+        List<String> result = new ArrayList<>();
+        for (String suggestion : node.top) {
+            if (result.size() >= limit) {
+                break;
+            }
+            if (key.length() <= MAX_DEPTH || startsAtWord(normalize(suggestion), key)) {
+                result.add(suggestion);
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Minúsculas, sin tildes y con los espacios colapsados. La "ñ" se conserva porque en español
+     * es una letra distinta de la "n".
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String lower = text.toLowerCase(Locale.ROOT).replace('ñ', '\u0001');
+        String stripped = Normalizer.normalize(lower, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return stripped.replace('\u0001', 'ñ').trim().replaceAll("\\s+", " ");
+    }
+
+    private static void insert(Node root, String key, int start, String display) {
+        Node node = root;
+        int end = Math.min(key.length(), start + MAX_DEPTH);
+        for (int i = start; i < end; i++) {
+            node = node.next.computeIfAbsent(key.charAt(i), c -> new Node());
+            if (node.top.size() < SUGGESTIONS_PER_NODE && !node.top.contains(display)) {
+                node.top.add(display);
+            }
+        }
+    }
+
+    private static boolean startsAtWord(String text, String prefix) {
+        int index = text.indexOf(prefix);
+        while (index >= 0) {
+            if (index == 0 || text.charAt(index - 1) == ' ') {
+                return true;
+            }
+            index = text.indexOf(prefix, index + 1);
+        }
+        return false;
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> next = new HashMap<>();
+        private final List<String> top = new ArrayList<>(1);
+    }
+}
@@ -0,0 +1,164 @@
+package com.gpis.marketplace_link.services.publications;
+
+import com.gpis.marketplace_link.dto.publication.projections.LastReportProjection;
+import com.gpis.marketplace_link.entities.Publication;
+import com.gpis.marketplace_link.repositories.ReportRepository;
+import com.gpis.marketplace_link.security.service.SecurityService;
+import com.gpis.marketplace_link.services.publications.events.PublicationReportedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resuelve el indicador {@code canReport} de los listados de publicaciones.
+ *
+ * En lugar de consultar el último reporte fila por fila, obtiene en una sola consulta
+ * la fecha del último reporte del usuario actual para todas las publicaciones de la página
+ * y guarda el resultado en una caché de corta duración por usuario.
+ */
+@Service
+public class ReportEligibilityService {
+
+    private static final long REPORT_COOLDOWN_HOURS = 24;
+    private static final int MAX_CACHED_USERS = 10_000;
+
+    /** Marca las publicaciones que el usuario nunca ha reportado (ConcurrentHashMap no admite null). */
+    private static final LocalDateTime NEVER_REPORTED = LocalDateTime.MIN;
+
+    private final ReportRepository reportRepository;
+    private final SecurityService securityService;
+    private final long ttlMillis;
+
+    private final Map<Long, CachedReports> cache = new ConcurrentHashMap<>();
+
+    public ReportEligibilityService(ReportRepository reportRepository, SecurityService securityService,
+            @Value("${CAN_REPORT_CACHE_TTL_SECONDS:30}") long ttlSeconds) {
+        this.reportRepository = reportRepository;
+        this.securityService = securityService;
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    /**
+     * Calcula si el usuario actual puede reportar cada una de las publicaciones recibidas.
+     *
+     * @param publications publicaciones de la página actual
+     * @return mapa ID de publicación -> puede reportar; vacío si no hay usuario autenticado
+     */
+    public Map<Long, Boolean> resolveForCurrentUser(Collection<Publication> publications) {
+        Map<Long, Long> vendorIdByPublicationId = new HashMap<>();
+        for (Publication publication : publications) {
+            vendorIdByPublicationId.put(publication.getId(), publication.getVendor().getId());
+        }
+        return resolveForCurrentUser(vendorIdByPublicationId);
+    }
+
+    /**
+     * Igual que {@link #resolveForCurrentUser(Collection)}, para listados que no cargan las entidades.
+     *
+     * @param vendorIdByPublicationId ID de cada publicación de la página -> ID de su vendedor
+     */
+    public Map<Long, Boolean> resolveForCurrentUser(Map<Long, Long> vendorIdByPublicationId) {
+        if (vendorIdByPublicationId.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Long currentUserId;
+        try {
+            currentUserId = securityService.getCurrentUserId();
+        } catch (Exception e) {
+            return Collections.emptyMap();
+        }
+
+        List<Long> candidateIds = vendorIdByPublicationId.entrySet().stream()
+                .filter(entry -> !currentUserId.equals(entry.getValue()))
+                .map(Map.Entry::getKey)
+                .toList();
+
+        Map<Long, LocalDateTime> lastReports = lastReportsFor(currentUserId, candidateIds);
+        LocalDateTime cooldownLimit = LocalDateTime.now().minusHours(REPORT_COOLDOWN_HOURS);
+
+        Map<Long, Boolean> result = new HashMap<>();
+        for (Long publicationId : candidateIds) {
+            LocalDateTime lastReport = lastReports.getOrDefault(publicationId, NEVER_REPORTED);
+            result.put(publicationId, !lastReport.isAfter(cooldownLimit));
+        }
+        return result;
+    }
+
+    /**
+     * Descarta la caché de un usuario, por ejemplo después de que realice un nuevo reporte.
+     */
+    public void evict(Long userId) {
+        if (userId != null) {
+            cache.remove(userId);
+        }
+    }
+
+    /**
+     * Invalida la caché del usuario recién confirmado el reporte: si se invalidara antes, un listado
+     * concurrente podría volver a cachear el estado previo al reporte.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPublicationReported(PublicationReportedEvent event) {
+        evict(event.reporterId());
+    }
+
+    private Map<Long, LocalDateTime> lastReportsFor(Long userId, List<Long> publicationIds) {
+        if (publicationIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        long now = System.currentTimeMillis();
+        CachedReports cached = cache.get(userId);
+        if (cached == null || cached.expiresAt() < now) {
+            cached = new CachedReports(new ConcurrentHashMap<>(), now + ttlMillis);
+            putInCache(userId, cached, now);
+        }
+
+        Map<Long, LocalDateTime> entries = cached.lastReports();
+        List<Long> missing = publicationIds.stream()
+                .filter(id -> !entries.containsKey(id))
+                .toList();
+
+        if (!missing.isEmpty()) {
+            Map<Long, LocalDateTime> loaded = new HashMap<>();
+            for (LastReportProjection row : reportRepository
+                    .findLastReportDatesByReporterIdAndPublicationIds(userId, missing)) {
+                if (row.getLastReportAt() != null) {
+                    loaded.put(row.getPublicationId(), row.getLastReportAt());
+                }
+            }
+            for (Long id : missing) {
+                entries.put(id, loaded.getOrDefault(id, NEVER_REPORTED));
+            }
+        }
+        return entries;
+    }
+
+    private void putInCache(Long userId, CachedReports entry, long now) {
+        if (cache.size() >= MAX_CACHED_USERS) {
+            cache.values().removeIf(c -> c.expiresAt() < now);
+            if (cache.size() >= MAX_CACHED_USERS) {
+                evictOldest(cache.size() - MAX_CACHED_USERS * 9 / 10);
+            }
+        }
+        cache.put(userId, entry);
+    }
+
+    /** Descarta las entradas más próximas a vencer en lugar de vaciar toda la caché. */
+    private void evictOldest(int count) {
+        cache.entrySet().stream()
+                .sorted(Comparator.comparingLong(entry -> entry.getValue().expiresAt()))
+                .limit(count)
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(cache::remove);
+    }
+
+    private record CachedReports(Map<Long, LocalDateTime> lastReports, long expiresAt) {}
+}
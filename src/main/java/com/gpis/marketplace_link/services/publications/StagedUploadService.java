@@ -0,0 +1,100 @@
+package com.gpis.marketplace_link.services.publications;
+
+import com.gpis.marketplace_link.entities.StagedUpload;
+import com.gpis.marketplace_link.repositories.StagedUploadRepository;
+import com.gpis.marketplace_link.services.publications.valueObjects.StagedImages;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Subida de imágenes en dos fases.
+ *
+ * Primero se validan y suben los archivos fuera de cualquier transacción y se registran como
+ * pendientes en {@code staged_uploads}. Después, la transacción corta que guarda la publicación
+ * llama a {@link #commit(List)}, que elimina esos registros: si la transacción falla, los
+ * registros sobreviven y el barrido periódico elimina los archivos que nunca se confirmaron.
+ *
+ * Así el tiempo que se retiene una conexión de la base de datos no depende del tamaño de la subida.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StagedUploadService {
+
+    private static final int SWEEP_BATCH_SIZE = 500;
+
+    private final StagedUploadRepository stagedUploadRepository;
+    private final FileStorageService fileStorageService;
+    private final ImageValidationService imageValidationService;
+
+    /**
+     * Valida y sube las imágenes, registrándolas como pendientes de confirmar.
+     *
+     * @return las filas pendientes creadas y las referencias de los archivos subidos
+     */
+    public StagedImages stage(List<MultipartFile> files) {
+        imageValidationService.validateImages(files);
+
+        List<String> references = fileStorageService.storeFiles(files);
+        if (references.isEmpty()) {
+            return StagedImages.empty();
+        }
+        List<Long> stagedIds = stagedUploadRepository.saveAll(references.stream().map(StagedUpload::new).toList())
+                .stream()
+                .map(StagedUpload::getId)
+                .toList();
+        return new StagedImages(stagedIds, references);
+    }
+
+    /**
+     * Confirma las subidas. Debe llamarse dentro de la transacción que guarda la publicación.
+     * Solo elimina las filas de esta petición: otra petición en curso con el mismo contenido
+     * conserva las suyas y, si falla, el barrido libera su referencia.
+     */
+    public void commit(StagedImages staged) {
+        if (!staged.stagedIds().isEmpty()) {
+            stagedUploadRepository.deleteAllByIdIn(staged.stagedIds());
+        }
+    }
+
+    /**
+     * Elimina del almacenamiento las subidas que siguen sin confirmar después de {@code ttlMinutes}.
+     *
+     * @return cantidad de archivos eliminados
+     */
+    public int sweepExpired(long ttlMinutes) {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(ttlMinutes);
+        int swept = 0;
+
+        List<StagedUpload> expired;
+        do {
+            expired = stagedUploadRepository.findByCreatedAtBeforeOrderByCreatedAtAsc(cutoff, Limit.of(SWEEP_BATCH_SIZE));
+
+            // Solo se olvidan las subidas cuyo archivo se pudo eliminar; el resto se reintenta en el próximo barrido
+            List<StagedUpload> deleted = new ArrayList<>();
+            for (StagedUpload upload : expired) {
+                try {
+                    fileStorageService.deleteFile(upload.getReference());
+                    deleted.add(upload);
+                } catch (Exception ex) {
+                    log.error("❌ No se pudo eliminar la subida pendiente {}", upload.getReference(), ex);
+                }
+            }
+            stagedUploadRepository.deleteAllInBatch(deleted);
+            swept += deleted.size();
+
+            if (deleted.size() < expired.size()) {
+                break;
+            }
+        } while (expired.size() == SWEEP_BATCH_SIZE);
+
+        return swept;
+    }
+}
@@ -0,0 +1,10 @@
+package com.gpis.marketplace_link.services.publications.events;
+
+import java.util.List;
+
+/**
+ * Se publica cuando una publicación guarda imágenes nuevas, para generar sus variantes
+ * una vez confirmada la transacción.
+ */
+public record PublicationImagesStoredEvent(List<Long> imageIds) {
+}
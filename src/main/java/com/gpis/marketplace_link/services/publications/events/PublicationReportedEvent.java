@@ -0,0 +1,8 @@
+package com.gpis.marketplace_link.services.publications.events;
+
+/**
+ * Se publica cuando un usuario reporta una publicación, para invalidar su caché de
+ * {@code canReport} una vez confirmada la transacción.
+ */
+public record PublicationReportedEvent(Long reporterId) {
+}
@@ -0,0 +1,17 @@
+package com.gpis.marketplace_link.services.publications.valueObjects;
+
+import com.gpis.marketplace_link.services.publications.DangerousWordsAutomaton;
+
+import java.time.Instant;
+
+/**
+ * Versión publicada del diccionario de palabras peligrosas: el autómata ya construido
+ * junto con los datos que permiten identificarla (hash del contenido, origen y fecha).
+ */
+public record DangerousDictionarySnapshot(
+        DangerousWordsAutomaton automaton,
+        String version,
+        String source,
+        int words,
+        Instant builtAt
+) {}
@@ -0,0 +1,75 @@
+package com.gpis.marketplace_link.services.publications.valueObjects;
+
+import com.gpis.marketplace_link.exceptions.business.publications.InvalidCursorException;
+
+import javax.crypto.Mac;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Base64;
+
+import static com.gpis.marketplace_link.security.config.TokenJwtConfig.SECRET_KEY;
+
+/**
+ * Posición dentro del feed de publicaciones ordenado por (publicationDate DESC, id DESC).
+ * Se expone al cliente como un token opaco en Base64 URL-safe, firmado con un HMAC truncado
+ * para rechazar cursores alterados o fabricados.
+ */
+public record PublicationCursor(LocalDateTime publicationDate, Long id) {
+
+    private static final String SEPARATOR = "|";
+    private static final String SIGNATURE_SEPARATOR = ".";
+    private static final int SIGNATURE_BYTES = 12;
+
+    public String encode() {
+        byte[] raw = (publicationDate + SEPARATOR + id).getBytes(StandardCharsets.UTF_8);
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString(raw) + SIGNATURE_SEPARATOR + encoder.encodeToString(sign(raw));
+    }
+
+    /**
+     * @param token cursor recibido del cliente; vacío o nulo indica la primera página
+     * @return la posición decodificada, o {@code null} para la primera página
+     * @throws InvalidCursorException si el cursor está mal formado o su firma no coincide
+     */
+    public static PublicationCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            int dot = token.indexOf(SIGNATURE_SEPARATOR);
+            if (dot <= 0) {
+                throw new InvalidCursorException("Cursor de paginación inválido");
+            }
+            byte[] raw = Base64.getUrlDecoder().decode(token.substring(0, dot));
+            byte[] signature = Base64.getUrlDecoder().decode(token.substring(dot + 1));
+            if (!MessageDigest.isEqual(sign(raw), signature)) {
+                throw new InvalidCursorException("Cursor de paginación inválido");
+            }
+
+            String value = new String(raw, StandardCharsets.UTF_8);
+            int sep = value.lastIndexOf(SEPARATOR);
+            if (sep <= 0) {
+                throw new InvalidCursorException("Cursor de paginación inválido");
+            }
+            return new PublicationCursor(
+                    LocalDateTime.parse(value.substring(0, sep)),
+                    Long.parseLong(value.substring(sep + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException("Cursor de paginación inválido");
+        }
+    }
+
+    private static byte[] sign(byte[] raw) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(SECRET_KEY);
+            return Arrays.copyOf(mac.doFinal(raw), SIGNATURE_BYTES);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 no está disponible", e);
+        }
+    }
+}
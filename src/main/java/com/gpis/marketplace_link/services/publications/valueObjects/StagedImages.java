@@ -0,0 +1,17 @@
+package com.gpis.marketplace_link.services.publications.valueObjects;
+
+import java.util.List;
+
+/**
+ * Imágenes subidas y registradas como pendientes por {@code StagedUploadService.stage}.
+ *
+ * @param stagedIds  filas de {@code staged_uploads} creadas por esta petición; con la deduplicación
+ *                   la referencia no es única, así que al confirmar se eliminan por ID
+ * @param references referencias de los archivos, en el mismo orden recibido
+ */
+public record StagedImages(List<Long> stagedIds, List<String> references) {
+
+    public static StagedImages empty() {
+        return new StagedImages(List.of(), List.of());
+    }
+}
@@ -0,0 +1,92 @@
+package com.gpis.marketplace_link.services.publications;
+
+import com.gpis.marketplace_link.services.publications.valueObjects.DangerousWordMatch;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DangerousWordsAutomatonTest {
+
+    @Test
+    void shouldMatchPrefixAtWordStartAndReturnFullWord() {
+        DangerousWordsAutomaton automaton = DangerousWordsAutomaton.build(List.of("rifl"));
+
+        List<DangerousWordMatch> matches = automaton.findAll("Vendo rifles baratos");
+
+        assertEquals(List.of(new DangerousWordMatch("rifles", "rifl")), matches);
+    }
+
+    @Test
+    void shouldNotMatchInsideAWord() {
+        DangerousWordsAutomaton automaton = DangerousWordsAutomaton.build(List.of("arma"));
+
+        assertFalse(automaton.containsAny("Vendo desarmador"));
+        assertEquals(List.of(new DangerousWordMatch("Arma", "arma")), automaton.findAll("desarmador y Arma blanca"));
+    }
+
+    @Test
+    void shouldIgnoreCaseAndAccentsInBothDirections() {
+        assertEquals(List.of(new DangerousWordMatch("POLVORA", "pólvora")),
+                DangerousWordsAutomaton.build(List.of("pólvora")).findAll("POLVORA negra"));
+        assertEquals(List.of(new DangerousWordMatch("pólvora", "polvora")),
+                DangerousWordsAutomaton.build(List.of("polvora")).findAll("vendo pólvora"));
+    }
+
+    @Test
+    void shouldKeepEnyeDistinctFromN() {
+        DangerousWordsAutomaton automaton = DangerousWordsAutomaton.build(List.of("caña"));
+
+        assertFalse(automaton.containsAny("cana de pescar"));
+        assertTrue(automaton.containsAny("Caña de pescar"));
+    }
+
+    @Test
+    void shouldFollowFailureLinksIntoOverlappingPhrase() {
+        // Tras "venta de " no hay transición en el trie; el enlace de fallo debe continuar en "de "
+        DangerousWordsAutomaton automaton = DangerousWordsAutomaton.build(List.of("venta de", "de armas"));
+
+        List<String> patterns = patterns(automaton.findAll("venta de armas"));
+
+        assertEquals(List.of("venta de", "de armas"), patterns);
+    }
+
+    @Test
+    void shouldReportSuffixPatternsThroughDictionaryLinks() {
+        DangerousWordsAutomaton automaton = DangerousWordsAutomaton.build(List.of("la droga", "droga"));
+
+        assertEquals(List.of("la droga", "droga"), patterns(automaton.findAll("la droga")));
+    }
+
+    @Test
+    void shouldSkipSuffixPatternsThatStartInsideAWord() {
+        DangerousWordsAutomaton automaton = DangerousWordsAutomaton.build(List.of("arma", "armamento", "mento"));
+
+        assertEquals(List.of("arma", "armamento"), patterns(automaton.findAll("armamento")));
+    }
+
+    @Test
+    void shouldIgnoreBlankAndDuplicateEntries() {
+        DangerousWordsAutomaton automaton = DangerousWordsAutomaton.build(Arrays.asList("Pólvora", "polvora", " ", null));
+
+        assertEquals(1, automaton.size());
+    }
+
+    @Test
+    void shouldNotMatchWithEmptyDictionaryOrText() {
+        DangerousWordsAutomaton automaton = DangerousWordsAutomaton.build(List.of("arma"));
+
+        assertFalse(DangerousWordsAutomaton.empty().containsAny("arma"));
+        assertFalse(automaton.containsAny(null));
+        assertTrue(automaton.findAll("   ").isEmpty());
+        assertFalse(automaton.containsAny("texto limpio"));
+    }
+
+    private static List<String> patterns(List<DangerousWordMatch> matches) {
+        return matches.stream().map(DangerousWordMatch::patternMatched).toList();
+    }
+}
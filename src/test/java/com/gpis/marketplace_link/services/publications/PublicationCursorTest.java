@@ -0,0 +1,49 @@
+package com.gpis.marketplace_link.services.publications;
+
+import com.gpis.marketplace_link.exceptions.business.publications.InvalidCursorException;
+import com.gpis.marketplace_link.services.publications.valueObjects.PublicationCursor;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PublicationCursorTest {
+
+    @Test
+    void shouldRoundTripCursor() {
+        PublicationCursor cursor = new PublicationCursor(LocalDateTime.of(2025, 9, 10, 10, 30, 15, 123_000_000), 42L);
+
+        PublicationCursor decoded = PublicationCursor.decode(cursor.encode());
+
+        assertEquals(cursor, decoded);
+    }
+
+    @Test
+    void shouldTreatEmptyCursorAsFirstPage() {
+        assertNull(PublicationCursor.decode(null));
+        assertNull(PublicationCursor.decode(" "));
+    }
+
+    @Test
+    void shouldRejectTamperedCursor() {
+        String token = new PublicationCursor(LocalDateTime.of(2025, 9, 10, 10, 30), 42L).encode();
+        String signature = token.substring(token.indexOf('.'));
+
+        // Mismo formato y firma original, pero con otro ID
+        String forgedPayload = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("2025-09-10T10:30|43".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(InvalidCursorException.class, () -> PublicationCursor.decode(forgedPayload + signature));
+    }
+
+    @Test
+    void shouldRejectMalformedCursor() {
+        assertThrows(InvalidCursorException.class, () -> PublicationCursor.decode("not-a-cursor"));
+        assertThrows(InvalidCursorException.class, () -> PublicationCursor.decode("%%%.%%%"));
+    }
+}
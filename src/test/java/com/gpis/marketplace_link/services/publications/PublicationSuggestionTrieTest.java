@@ -0,0 +1,81 @@
+package com.gpis.marketplace_link.services.publications;
+
+import com.gpis.marketplace_link.dto.publication.projections.SuggestionTermProjection;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PublicationSuggestionTrieTest {
+
+    @Test
+    void shouldNormalizeStrippingAccentsButKeepingEnye() {
+        assertEquals("cañon arbol", PublicationSuggestionTrie.normalize("  Cañón \t ÁRBOL "));
+        assertEquals("", PublicationSuggestionTrie.normalize(null));
+    }
+
+    @Test
+    void shouldMatchIgnoringCaseAndAccentsButNotEnye() {
+        PublicationSuggestionTrie trie = PublicationSuggestionTrie.build(List.of(term("Caña de pescar", 3L)));
+
+        assertEquals(List.of("Caña de pescar"), trie.find("CAÑA", 10));
+        assertTrue(trie.find("cana", 10).isEmpty());
+    }
+
+    @Test
+    void shouldIndexEveryWordStartButNotTheMiddleOfAWord() {
+        PublicationSuggestionTrie trie = PublicationSuggestionTrie.build(List.of(term("iPhone 13 Pro", 1L)));
+
+        assertEquals(List.of("iPhone 13 Pro"), trie.find("pro", 10));
+        assertEquals(List.of("iPhone 13 Pro"), trie.find("13", 10));
+        assertTrue(trie.find("hone", 10).isEmpty());
+    }
+
+    @Test
+    void shouldOrderByFrequencyAndHonorLimit() {
+        PublicationSuggestionTrie trie = PublicationSuggestionTrie.build(List.of(
+                term("Bicicleta", 2L),
+                term("Bici eléctrica", 10L),
+                term("Bicho de peluche", null)));
+
+        assertEquals(List.of("Bici eléctrica", "Bicicleta", "Bicho de peluche"), trie.find("bic", 10));
+        assertEquals(List.of("Bici eléctrica"), trie.find("bic", 1));
+    }
+
+    @Test
+    void shouldFilterSuggestionsWhenQueryIsDeeperThanTheTrie() {
+        // Las claves se indexan hasta 12 caracteres: "refrigerador" es el nodo más profundo
+        PublicationSuggestionTrie trie = PublicationSuggestionTrie.build(List.of(
+                term("Refrigeradora Samsung", 5L),
+                term("Refrigeradora LG", 3L)));
+
+        assertEquals(List.of("Refrigeradora Samsung", "Refrigeradora LG"), trie.find("refrigeradora", 10));
+        assertEquals(List.of("Refrigeradora Samsung"), trie.find("refrigeradora sam", 10));
+        assertTrue(trie.find("refrigeradora x", 10).isEmpty());
+    }
+
+    @Test
+    void shouldIgnoreBlankTerms() {
+        PublicationSuggestionTrie trie = PublicationSuggestionTrie.build(List.of(
+                term(" ", 9L), term(null, 9L), term("Mesa", 1L)));
+
+        assertEquals(1, trie.size());
+        assertTrue(trie.find(" ", 10).isEmpty());
+    }
+
+    private static SuggestionTermProjection term(String term, Long frequency) {
+        return new SuggestionTermProjection() {
+            @Override
+            public String getTerm() {
+                return term;
+            }
+
+            @Override
+            public Long getFrequency() {
+                return frequency;
+            }
+        };
+    }
+}